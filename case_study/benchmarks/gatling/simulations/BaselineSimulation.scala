@@ -2,6 +2,7 @@ package simulations
 
 import io.gatling.core.Predef._
 import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
 import scala.concurrent.duration._
 
 /**
@@ -24,12 +25,14 @@ class BaselineSimulation extends Simulation {
       .get("/api/inventory/products/available")
       .check(status.is(200)))
     .pause(1)
+    .feed(WorkloadFeeders.productViews)
     .exec(http("Get Product by ID")
-      .get("/api/inventory/products/1")
+      .get("/api/inventory/products/#{productId}")
       .check(status.is(200)))
     .pause(1)
+    .feed(WorkloadFeeders.userViews)
     .exec(http("Get User Info")
-      .get("/api/users/1")
+      .get("/api/users/#{userId}")
       .check(status.is(200)))
 
   setUp(
@@ -2,6 +2,7 @@ package simulations
 
 import io.gatling.core.Predef._
 import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
 import scala.concurrent.duration._
 
 /**
@@ -15,18 +16,10 @@ class ConcurrentOrdersSimulation extends Simulation {
     .acceptHeader("application/json")
     .contentTypeHeader("application/json")
 
-  val orderRequest = StringBody("""{
-    "userId": #{userId},
-    "items": [
-      {"productId": #{productId}, "quantity": #{quantity}, "unitPrice": 99.99}
-    ]
-  }""")
+  val orderRequest = StringBody("""{"userId": #{userId}, "items": #{itemsJson}}""")
 
-  val feeder = Iterator.continually(Map(
-    "userId" -> (1 + scala.util.Random.nextInt(10)),
-    "productId" -> (1 + scala.util.Random.nextInt(10)),
-    "quantity" -> (1 + scala.util.Random.nextInt(5))
-  ))
+  // Zipf-distributed hot products and users, see workload/WorkloadFeeders.scala
+  val feeder = WorkloadFeeders.orders
 
   val scn = scenario("Concurrent Orders")
     .feed(feeder)
@@ -2,6 +2,7 @@ package simulations
 
 import io.gatling.core.Predef._
 import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
 import scala.concurrent.duration._
 
 /**
@@ -15,15 +16,10 @@ class OrderFlowSimulation extends Simulation {
     .acceptHeader("application/json")
     .contentTypeHeader("application/json")
 
-  val orderRequest = StringBody("""{
-    "userId": 1,
-    "items": [
-      {"productId": 1, "quantity": 2, "unitPrice": 999.99},
-      {"productId": 2, "quantity": 1, "unitPrice": 29.99}
-    ]
-  }""")
+  val orderRequest = StringBody("""{"userId": #{userId}, "items": #{itemsJson}}""")
 
   val scn = scenario("Complete Order Flow")
+    .feed(WorkloadFeeders.orders)
     .exec(http("Create Order")
       .post("/api/orders")
       .body(orderRequest)
@@ -2,6 +2,7 @@ package simulations
 
 import io.gatling.core.Predef._
 import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
 import scala.concurrent.duration._
 
 /**
@@ -15,14 +16,19 @@ class RampUpSimulation extends Simulation {
     .acceptHeader("application/json")
     .contentTypeHeader("application/json")
 
-  val browse = exec(http("Browse Products")
-    .get("/api/inventory/products")
-    .check(status.is(200)))
+  val browse = feed(WorkloadFeeders.productViews)
+    .exec(http("Browse Products")
+      .get("/api/inventory/products")
+      .check(status.is(200)))
+    .exec(http("View Product")
+      .get("/api/inventory/products/#{productId}")
+      .check(status.is(200)))
 
-  val createOrder = exec(http("Create Order")
-    .post("/api/orders")
-    .body(StringBody("""{"userId": 1, "items": [{"productId": 1, "quantity": 1, "unitPrice": 99.99}]}"""))
-    .check(status.is(200)))
+  val createOrder = feed(WorkloadFeeders.orders)
+    .exec(http("Create Order")
+      .post("/api/orders")
+      .body(StringBody("""{"userId": #{userId}, "items": #{itemsJson}}"""))
+      .check(status.is(200)))
 
   val scn = scenario("Gradual Ramp-Up")
     .randomSwitch(
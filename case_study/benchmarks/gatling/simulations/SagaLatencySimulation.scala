@@ -0,0 +1,94 @@
+package simulations
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
+import java.util.concurrent.TimeUnit
+import scala.concurrent.duration._
+
+/**
+ * Scenario 6: Saga Latency - Order creation until the invoice exists
+ * OrderFlowSimulation only times POST /api/orders; this simulation follows each order until it is
+ * CONFIRMED (layered) or COMPLETED (ADAPT, once billing has reported the invoice) and its invoice can be
+ * fetched, polling with exponential backoff. An ADAPT order passes through CONFIRMED on its way to COMPLETED.
+ * The whole chain is one Gatling group ("Saga: order to invoice"), whose duration
+ * (gatling.conf: useGroupDurationMetric) is the end-to-end saga latency.
+ *
+ * Run against either architecture:
+ *   -Darchitecture=adapt    (default) invoices appear asynchronously via the event choreography
+ *   -Darchitecture=layered  the monolith confirms synchronously; the invoice is generated by its billing endpoint
+ */
+class SagaLatencySimulation extends Simulation {
+
+  val architecture = System.getProperty("architecture", "adapt")
+  val baseUrl = System.getProperty("baseUrl", "http://localhost:8080")
+  val maxPolls = Integer.getInteger("sagaMaxPolls", 40).intValue
+  val firstBackoffMs = Integer.getInteger("sagaFirstBackoffMs", 50).intValue
+  val maxBackoffMs = Integer.getInteger("sagaMaxBackoffMs", 1000).intValue
+
+  val httpProtocol = http
+    .baseUrl(baseUrl)
+    .acceptHeader("application/json")
+    .contentTypeHeader("application/json")
+
+  val createOrder = exec(http("Create Order")
+    .post("/api/orders")
+    .body(StringBody("""{"userId": #{userId}, "items": #{itemsJson}}"""))
+    .check(status.in(200, 201))
+    .check(jsonPath("$.id").saveAs("orderId")))
+
+  // ADAPT: billing-service reacts to OrderConfirmed; layered: the client asks billing to generate it
+  val fetchInvoice =
+    if (architecture == "layered")
+      exec(http("Generate Invoice")
+        .post("/api/billing/invoices/generate/#{orderId}")
+        .check(status.in(200, 201, 404, 500).saveAs("invoiceHttpStatus")))
+    else
+      exec(http("Poll Invoice")
+        .get("/api/invoices/order/#{orderId}")
+        .check(status.in(200, 404, 500).saveAs("invoiceHttpStatus")))
+
+  // Statuses after which the invoice can be fetched; FAILED ends the saga as KO
+  val successStatuses = Set("CONFIRMED", "COMPLETED")
+
+  val awaitInvoice = exec(_.setAll("sagaDone" -> false, "sagaFailed" -> false, "poll" -> 0, "backoffMs" -> firstBackoffMs))
+    .asLongAs(session => !session("sagaDone").as[Boolean] && session("poll").as[Int] < maxPolls) {
+      exec(http("Poll Order Status")
+        .get("/api/orders/#{orderId}")
+        .check(status.is(200))
+        .check(jsonPath("$.status").saveAs("orderStatus")))
+        .doIf(session => successStatuses.contains(session("orderStatus").as[String])) {
+          fetchInvoice
+            .exec(session => session.set("sagaDone", session("invoiceHttpStatus").as[Int] / 100 == 2))
+        }
+        .doIfEquals("#{orderStatus}", "FAILED") {
+          exec(_.setAll("sagaDone" -> true, "sagaFailed" -> true))
+        }
+        .doIf(session => !session("sagaDone").as[Boolean]) {
+          pause("#{backoffMs}", TimeUnit.MILLISECONDS)
+            .exec(session => session.setAll(
+              "poll" -> (session("poll").as[Int] + 1),
+              "backoffMs" -> math.min(session("backoffMs").as[Int] * 2, maxBackoffMs)))
+        }
+    }
+    // Failed sagas and sagas that never produced an invoice count as KO for the group
+    .doIf(session => session("sagaFailed").as[Boolean] || !session("sagaDone").as[Boolean]) {
+      exec(_.markAsFailed)
+    }
+
+  val scn = scenario("Saga Latency")
+    .feed(WorkloadFeeders.orders)
+    .group("Saga: order to invoice") {
+      createOrder.exitHereIfFailed.exec(awaitInvoice)
+    }
+
+  setUp(
+    scn.inject(
+      rampUsersPerSec(1) to 10 during (30 seconds),
+      constantUsersPerSec(10) during (60 seconds)
+    )
+  ).protocols(httpProtocol)
+    .assertions(
+      details("Saga: order to invoice").successfulRequests.percent.gt(95)
+    )
+}
@@ -2,6 +2,7 @@ package simulations
 
 import io.gatling.core.Predef._
 import io.gatling.http.Predef._
+import simulations.workload.WorkloadFeeders
 import scala.concurrent.duration._
 
 /**
@@ -16,13 +17,14 @@ class SpikeTestSimulation extends Simulation {
     .contentTypeHeader("application/json")
 
   val scn = scenario("Traffic Spike")
+    .feed(WorkloadFeeders.orders)
     .exec(http("Get Products")
       .get("/api/inventory/products")
       .check(status.is(200)))
     .pause(500 milliseconds)
     .exec(http("Create Order")
       .post("/api/orders")
-      .body(StringBody("""{"userId": 1, "items": [{"productId": 1, "quantity": 1, "unitPrice": 99.99}]}"""))
+      .body(StringBody("""{"userId": #{userId}, "items": #{itemsJson}}"""))
       .check(status.in(200, 500, 503))) // Accept circuit breaker responses
 
   setUp(
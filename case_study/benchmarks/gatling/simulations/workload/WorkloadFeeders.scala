@@ -0,0 +1,76 @@
+package simulations.workload
+
+import java.util.Random
+
+/**
+ * Shared workload model for all simulations
+ * Products and users are drawn from Zipf distributions over a seeded catalog and user population,
+ * baskets have a geometric size distribution. The catalog must match the data created by
+ * scripts/seed-data.py (same catalog size, ids 1..n, same price formula).
+ *
+ * System properties:
+ *   catalogSize (1000), productSkew (0.99), userPopulation (10000), userSkew (0.0 = uniform),
+ *   basketMean (2.0), basketMax (5), maxQuantity (3), workloadSeed (42)
+ */
+object WorkloadFeeders {
+
+  val catalogSize: Int = Integer.getInteger("catalogSize", 1000).intValue
+  val productSkew: Double = System.getProperty("productSkew", "0.99").toDouble
+  val userPopulation: Int = Integer.getInteger("userPopulation", 10000).intValue
+  val userSkew: Double = System.getProperty("userSkew", "0.0").toDouble
+  val basketMean: Double = System.getProperty("basketMean", "2.0").toDouble
+  val basketMax: Int = Integer.getInteger("basketMax", 5).intValue
+  val maxQuantity: Int = Integer.getInteger("maxQuantity", 3).intValue
+  val seed: Long = java.lang.Long.getLong("workloadSeed", 42L).longValue
+
+  // java.util.Random is thread-safe; feeders may be polled from several Gatling threads
+  private val random = new Random(seed)
+  val products = new ZipfDistribution(catalogSize, productSkew)
+  val users = new ZipfDistribution(userPopulation, userSkew)
+
+  /** Unit price of a seeded product; keep in sync with PRICE_SQL in scripts/seed-data.py */
+  def price(productId: Int): BigDecimal =
+    BigDecimal(500 + (productId.toLong * 7919) % 20000) / 100
+
+  /** Basket size: geometric with the configured mean, truncated to 1..basketMax */
+  def basketSize(): Int = {
+    val p = 1.0 / math.max(basketMean, 1.0)
+    var size = 1
+    while (size < basketMax && random.nextDouble() > p) size += 1
+    size
+  }
+
+  /** Distinct Zipf-distributed products for one basket */
+  def basket(): Seq[Int] = {
+    val size = math.min(basketSize(), catalogSize)
+    val chosen = scala.collection.mutable.LinkedHashSet[Int]()
+    while (chosen.size < size) chosen += products.sample(random)
+    chosen.toSeq
+  }
+
+  /**
+   * Order feeder: userId, productId (first basket item), basketSize and itemsJson,
+   * a JSON array ready to embed in a CreateOrderRequest body.
+   */
+  def orders: Iterator[Map[String, Any]] = Iterator.continually {
+    val items = basket()
+    val itemsJson = items.map { productId =>
+      val quantity = 1 + random.nextInt(maxQuantity)
+      s"""{"productId": $productId, "quantity": $quantity, "unitPrice": ${price(productId)}}"""
+    }.mkString("[", ", ", "]")
+    Map(
+      "userId" -> users.sample(random),
+      "productId" -> items.head,
+      "basketSize" -> items.size,
+      "itemsJson" -> itemsJson
+    )
+  }
+
+  /** Product browsing feeder: productId */
+  def productViews: Iterator[Map[String, Any]] =
+    Iterator.continually(Map("productId" -> products.sample(random)))
+
+  /** User lookup feeder: userId */
+  def userViews: Iterator[Map[String, Any]] =
+    Iterator.continually(Map("userId" -> users.sample(random)))
+}
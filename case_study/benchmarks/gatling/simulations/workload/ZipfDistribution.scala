@@ -0,0 +1,35 @@
+package simulations.workload
+
+import java.util.Random
+
+/**
+ * Zipf distribution over ranks 1..n: P(k) is proportional to 1 / k^skew
+ * skew = 0 is uniform; skew around 1 matches typical catalog popularity.
+ * Sampling is a binary search over the precomputed CDF, so n up to a few million is cheap.
+ */
+class ZipfDistribution(val n: Int, val skew: Double) {
+  require(n > 0, "n must be positive")
+  require(skew >= 0, "skew must be non-negative")
+
+  private val cdf: Array[Double] = {
+    val weights = Array.tabulate(n)(i => 1.0 / math.pow(i + 1, skew))
+    val total = weights.sum
+    var cumulative = 0.0
+    weights.map { w => cumulative += w / total; cumulative }
+  }
+
+  /** Rank in 1..n, rank 1 being the most popular */
+  def sample(random: Random): Int = {
+    val u = random.nextDouble()
+    var low = 0
+    var high = n - 1
+    while (low < high) {
+      val mid = (low + high) >>> 1
+      if (cdf(mid) < u) low = mid + 1 else high = mid
+    }
+    low + 1
+  }
+
+  /** Share of all draws that land on the top k ranks */
+  def topShare(k: Int): Double = cdf(math.min(k, n) - 1)
+}
@@ -0,0 +1,150 @@
+package com.research.adapt.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records three histograms, in microseconds:
+ * - corrected: latency of successful and timed-out requests from the intended start time on the fixed schedule
+ *   (what a user arriving at that moment sees)
+ * - failed: the same for requests that got no usable answer: 4xx/5xx and connection errors at their elapsed time,
+ *   and requests shed over the in-flight cap at the request timeout, since they are never answered at all
+ * - scheduler_lag: how late the generator sent each request (actual send time minus intended start time)
+ * Scheduler lag is a health check of the generator, not a closed-loop comparison: with uncapped connections the
+ * generator never waits for a response, so it should stay near zero. When it does not, part of the corrected latency
+ * is the generator's own and the run should be repeated at a lower rate or on a bigger machine.
+ *
+ * Kept apart, a fast 503 cannot improve the corrected distribution, and an architecture cannot look faster by
+ * failing or shedding more; analyze-latency.py compares both corrected alone and corrected plus failed.
+ *
+ * Interval histograms are appended to an HdrHistogram log (tags "corrected", "failed" and "scheduler_lag"),
+ * readable by HistogramLogProcessor and other HdrHistogram tooling.
+ */
+class LatencyRecorder {
+
+    static final String CORRECTED = "corrected";
+    static final String FAILED = "failed";
+    static final String SCHEDULER_LAG = "scheduler_lag";
+
+    enum Outcome { OK, HTTP_4XX, HTTP_5XX, TIMEOUT, CONNECTION_ERROR, DROPPED }
+
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder failed = new Recorder(3);
+    private final Recorder schedulerLag = new Recorder(3);
+    private final Histogram correctedTotal = new Histogram(3);
+    private final Histogram failedTotal = new Histogram(3);
+    private final Histogram schedulerLagTotal = new Histogram(3);
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final PrintStream log;
+    private final HistogramLogWriter writer;
+    private Histogram correctedInterval;
+    private Histogram failedInterval;
+    private Histogram schedulerLagInterval;
+    private boolean closed;
+
+    LatencyRecorder(Path logFile, String comment) throws IOException {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        this.log = new PrintStream(logFile.toFile());
+        this.writer = new HistogramLogWriter(log);
+        long now = System.currentTimeMillis();
+        writer.outputComment(comment);
+        writer.outputComment("Values in microseconds");
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(now);
+        writer.setBaseTime(now);
+        writer.outputLegend();
+    }
+
+    /** Starts the first logged interval at the end of the warm-up, rather than at construction */
+    synchronized void startMeasuring() {
+        correctedInterval = corrected.getIntervalHistogram(correctedInterval);
+        failedInterval = failed.getIntervalHistogram(failedInterval);
+        schedulerLagInterval = schedulerLag.getIntervalHistogram(schedulerLagInterval);
+    }
+
+    /** Thread-safe; called from HTTP client completion threads */
+    void record(Outcome outcome, long intendedAt, long sentAt, long completedAt) {
+        outcomes.get(outcome).increment();
+        schedulerLag.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(sentAt - intendedAt)));
+        // Timeouts stay in corrected, since leaving them out would hide exactly the outliers this tool is for
+        Recorder series = outcome == Outcome.OK || outcome == Outcome.TIMEOUT ? corrected : failed;
+        series.recordValue(micros(completedAt - intendedAt));
+    }
+
+    /** A request shed over the in-flight cap; recorded as if its client had waited out the timeout */
+    void dropped(long timeoutNanos) {
+        outcomes.get(Outcome.DROPPED).increment();
+        failed.recordValue(micros(timeoutNanos));
+    }
+
+    /** Writes one interval to the log; called periodically from a single thread */
+    synchronized void flushInterval() {
+        if (closed) {
+            return;
+        }
+        correctedInterval = corrected.getIntervalHistogram(correctedInterval);
+        failedInterval = failed.getIntervalHistogram(failedInterval);
+        schedulerLagInterval = schedulerLag.getIntervalHistogram(schedulerLagInterval);
+        correctedTotal.add(correctedInterval);
+        failedTotal.add(failedInterval);
+        schedulerLagTotal.add(schedulerLagInterval);
+        correctedInterval.setTag(CORRECTED);
+        failedInterval.setTag(FAILED);
+        schedulerLagInterval.setTag(SCHEDULER_LAG);
+        writer.outputIntervalHistogram(correctedInterval);
+        writer.outputIntervalHistogram(failedInterval);
+        writer.outputIntervalHistogram(schedulerLagInterval);
+    }
+
+    long count(Outcome outcome) {
+        return outcomes.get(outcome).sum();
+    }
+
+    long total() {
+        return outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Histogram correctedTotal() {
+        return correctedTotal;
+    }
+
+    Histogram failedTotal() {
+        return failedTotal;
+    }
+
+    Histogram schedulerLagTotal() {
+        return schedulerLagTotal;
+    }
+
+    /** Percentile distribution in milliseconds, the .hgrm format used by the HdrHistogram plotter */
+    void writeDistribution(Histogram histogram, Path file) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            histogram.outputPercentileDistribution(out, 5, 1000.0);
+        }
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /** Writes the last interval and closes the log */
+    synchronized void finish() {
+        flushInterval();
+        closed = true;
+        log.close();
+    }
+}
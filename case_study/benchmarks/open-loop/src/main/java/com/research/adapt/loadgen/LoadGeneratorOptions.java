@@ -0,0 +1,69 @@
+package com.research.adapt.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load generator settings, parsed from --key=value arguments
+ *
+ * @param target        base URL of the system under test (gateway or monolith)
+ * @param rate          requests per second, on a fixed schedule
+ * @param warmup        warm-up period, sent but not recorded
+ * @param duration      measured period
+ * @param timeout       per-request timeout; timed-out requests are recorded at their elapsed time
+ * @param maxInFlight   client-side cap on outstanding requests; requests over the cap are recorded as dropped,
+ *                      failing at the timeout
+ * @param output        directory for latency.hlog, *.hgrm and summary.json
+ * @param architecture  label written into the outputs (adapt or layered)
+ * @param catalogSize   seeded products, ids 1..catalogSize
+ * @param users         seeded users, ids 1..users
+ * @param productSkew   Zipf exponent for product popularity
+ * @param seed          random seed for the workload
+ */
+public record LoadGeneratorOptions(
+        URI target,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Duration timeout,
+        int maxInFlight,
+        Path output,
+        String architecture,
+        int catalogSize,
+        int users,
+        double productSkew,
+        long seed) {
+
+    public static LoadGeneratorOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadGeneratorOptions options = new LoadGeneratorOptions(
+                URI.create(values.getOrDefault("target", "http://localhost:8080")),
+                Double.parseDouble(values.getOrDefault("rate", "50")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "20"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "120"))),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("timeout-ms", "10000"))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Path.of(values.getOrDefault("output", "target/open-loop")),
+                values.getOrDefault("architecture", "adapt"),
+                Integer.parseInt(values.getOrDefault("catalog-size", "1000")),
+                Integer.parseInt(values.getOrDefault("users", "10000")),
+                Double.parseDouble(values.getOrDefault("product-skew", "0.99")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+
+        if (options.rate <= 0 || options.duration.isZero() || options.maxInFlight < 1) {
+            throw new IllegalArgumentException("rate, duration-seconds and max-in-flight must be positive");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,199 @@
+package com.research.adapt.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop, constant-arrival-rate load generator for POST /api/orders
+ * Request i is due at start + i / rate, whether or not earlier requests have completed, and its latency is
+ * measured from that intended time. When the system saturates, latency grows instead of the arrival rate
+ * silently dropping, as it does with closed-loop injection. Works against the gateway and the monolith alike.
+ *
+ * Run with: mvn -q compile exec:java -Dexec.args="--rate=100 --duration-seconds=120 --output=..."
+ */
+public class OpenLoopLoadGenerator {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorOptions options = LoadGeneratorOptions.parse(args);
+        URI ordersUri = options.target().resolve("/api/orders");
+        OrderWorkload workload = new OrderWorkload(options);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .executor(Executors.newCachedThreadPool(OpenLoopLoadGenerator::daemon))
+                .build();
+
+        String comment = String.format(Locale.ROOT, "architecture=%s target=%s rate=%.1f/s warmup=%ds duration=%ds",
+                options.architecture(), options.target(), options.rate(),
+                options.warmup().toSeconds(), options.duration().toSeconds());
+        AtomicInteger inFlight = new AtomicInteger();
+
+        LatencyRecorder recorder = new LatencyRecorder(options.output().resolve("latency.hlog"), comment);
+        ScheduledExecutorService intervals = Executors.newSingleThreadScheduledExecutor(OpenLoopLoadGenerator::daemon);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        intervals.schedule(recorder::startMeasuring, options.warmup().toMillis(), TimeUnit.MILLISECONDS);
+        intervals.scheduleAtFixedRate(recorder::flushInterval,
+                options.warmup().toMillis() + 1000, 1000, TimeUnit.MILLISECONDS);
+
+        System.out.println("Open-loop load: " + comment);
+        for (long i = 0; ; i++) {
+            long intendedAt = start + (long) (i * intervalNanos);
+            if (intendedAt >= end) {
+                break;
+            }
+            long wait = intendedAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intendedAt >= measureFrom;
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (measured) {
+                    recorder.dropped(options.timeout().toNanos());
+                }
+                continue;
+            }
+
+            HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                    .timeout(options.timeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(workload.nextBody()))
+                    .build();
+            inFlight.incrementAndGet();
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long completedAt = System.nanoTime();
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            recorder.record(outcome(response, error), intendedAt, sentAt, completedAt);
+                        }
+                    });
+        }
+
+        // Let outstanding requests finish or time out before the final interval
+        long drainDeadline = System.nanoTime() + options.timeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        intervals.shutdownNow();
+        intervals.awaitTermination(1, TimeUnit.SECONDS);
+        recorder.finish();
+
+        report(options, recorder, System.out);
+        writeResults(options, recorder);
+    }
+
+    private static Thread daemon(Runnable task) {
+        Thread thread = new Thread(task, "open-loop");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static LatencyRecorder.Outcome outcome(HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof HttpTimeoutException
+                    ? LatencyRecorder.Outcome.TIMEOUT
+                    : LatencyRecorder.Outcome.CONNECTION_ERROR;
+        }
+        int status = response.statusCode();
+        if (status >= 500) {
+            return LatencyRecorder.Outcome.HTTP_5XX;
+        }
+        return status >= 400 ? LatencyRecorder.Outcome.HTTP_4XX : LatencyRecorder.Outcome.OK;
+    }
+
+    private static void report(LoadGeneratorOptions options, LatencyRecorder recorder, PrintStream out) {
+        Histogram corrected = recorder.correctedTotal();
+        Histogram failed = recorder.failedTotal();
+        Histogram lag = recorder.schedulerLagTotal();
+        long seconds = Math.max(1, options.duration().toSeconds());
+
+        out.println();
+        out.printf(Locale.ROOT, "Requests: %d scheduled (%.1f/s), %d ok (%.1f/s)%n",
+                recorder.total(), (double) recorder.total() / seconds,
+                recorder.count(LatencyRecorder.Outcome.OK), (double) recorder.count(LatencyRecorder.Outcome.OK) / seconds);
+        for (LatencyRecorder.Outcome outcome : LatencyRecorder.Outcome.values()) {
+            if (outcome != LatencyRecorder.Outcome.OK && recorder.count(outcome) > 0) {
+                out.printf("  %-16s %d%n", outcome, recorder.count(outcome));
+            }
+        }
+        out.println();
+        out.printf("%-12s %12s %12s %14s%n", "percentile", "latency", "failed", "scheduler lag");
+        for (double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, "p%-11s %9.2f ms %9.2f ms %11.2f ms%n", format(percentile),
+                    millis(corrected.getValueAtPercentile(percentile)), millis(failed.getValueAtPercentile(percentile)),
+                    millis(lag.getValueAtPercentile(percentile)));
+        }
+        out.printf(Locale.ROOT, "%-12s %9.2f ms %9.2f ms %11.2f ms%n", "max",
+                millis(corrected.getMaxValue()), millis(failed.getMaxValue()), millis(lag.getMaxValue()));
+        if (corrected.getTotalCount() < 100_000) {
+            out.printf("Note: %d samples; p99.99 needs well over 10,000 to mean anything%n", corrected.getTotalCount());
+        }
+    }
+
+    private static void writeResults(LoadGeneratorOptions options, LatencyRecorder recorder) throws IOException {
+        recorder.writeDistribution(recorder.correctedTotal(), options.output().resolve(LatencyRecorder.CORRECTED + ".hgrm"));
+        recorder.writeDistribution(recorder.failedTotal(), options.output().resolve(LatencyRecorder.FAILED + ".hgrm"));
+        recorder.writeDistribution(recorder.schedulerLagTotal(), options.output().resolve(LatencyRecorder.SCHEDULER_LAG + ".hgrm"));
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append(String.format(Locale.ROOT, "  \"architecture\": \"%s\",%n", options.architecture()));
+        json.append(String.format(Locale.ROOT, "  \"target_rate\": %.3f,%n", options.rate()));
+        json.append(String.format(Locale.ROOT, "  \"duration_seconds\": %d,%n", options.duration().toSeconds()));
+        json.append("  \"outcomes\": {");
+        LatencyRecorder.Outcome[] outcomes = LatencyRecorder.Outcome.values();
+        for (int i = 0; i < outcomes.length; i++) {
+            json.append(i == 0 ? "" : ", ").append('"').append(outcomes[i].name().toLowerCase(Locale.ROOT))
+                    .append("\": ").append(recorder.count(outcomes[i]));
+        }
+        json.append("},\n");
+        appendPercentiles(json, LatencyRecorder.CORRECTED, recorder.correctedTotal());
+        json.append(",\n");
+        appendPercentiles(json, LatencyRecorder.FAILED, recorder.failedTotal());
+        json.append(",\n");
+        appendPercentiles(json, LatencyRecorder.SCHEDULER_LAG, recorder.schedulerLagTotal());
+        json.append("\n}\n");
+        Files.writeString(options.output().resolve("summary.json"), json);
+        System.out.println("Results written to " + options.output().toAbsolutePath());
+    }
+
+    private static void appendPercentiles(StringBuilder json, String name, Histogram histogram) {
+        json.append("  \"").append(name).append("_ms\": {");
+        for (double percentile : PERCENTILES) {
+            json.append(String.format(Locale.ROOT, "\"p%s\": %.3f, ", format(percentile),
+                    millis(histogram.getValueAtPercentile(percentile))));
+        }
+        json.append(String.format(Locale.ROOT, "\"max\": %.3f, \"count\": %d}",
+                millis(histogram.getMaxValue()), histogram.getTotalCount()));
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.research.adapt.loadgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Order request bodies for POST /api/orders
+ * Same model as the Gatling workload feeders (benchmarks/gatling/simulations/workload): Zipf-distributed
+ * products, geometric basket sizes with mean 2 (at most 5 items), prices matching scripts/seed-data.py.
+ * Not thread-safe: used by the single scheduling thread only.
+ */
+class OrderWorkload {
+
+    private static final int BASKET_MAX = 5;
+    private static final double BASKET_CONTINUE = 0.5;
+    private static final int MAX_QUANTITY = 3;
+
+    private final Random random;
+    private final double[] productCdf;
+    private final int users;
+
+    OrderWorkload(LoadGeneratorOptions options) {
+        this.random = new Random(options.seed());
+        this.productCdf = zipfCdf(options.catalogSize(), options.productSkew());
+        this.users = options.users();
+    }
+
+    String nextBody() {
+        int basket = 1;
+        while (basket < BASKET_MAX && random.nextDouble() < BASKET_CONTINUE) {
+            basket++;
+        }
+        int[] products = new int[basket];
+        int size = 0;
+        while (size < basket && size < productCdf.length) {
+            int product = nextProduct();
+            if (!contains(products, size, product)) {
+                products[size++] = product;
+            }
+        }
+
+        StringBuilder body = new StringBuilder(64 + 80 * size)
+                .append("{\"userId\": ").append(1 + random.nextInt(users)).append(", \"items\": [");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                body.append(", ");
+            }
+            body.append("{\"productId\": ").append(products[i])
+                    .append(", \"quantity\": ").append(1 + random.nextInt(MAX_QUANTITY))
+                    .append(", \"unitPrice\": ").append(price(products[i])).append('}');
+        }
+        return body.append("]}").toString();
+    }
+
+    /** Unit price of a seeded product; keep in sync with PRICE_SQL in scripts/seed-data.py */
+    static String price(int productId) {
+        long cents = 500 + (productId * 7919L) % 20000;
+        return cents / 100 + "." + (cents % 100 < 10 ? "0" : "") + cents % 100;
+    }
+
+    private int nextProduct() {
+        int index = Arrays.binarySearch(productCdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, productCdf.length - 1) + 1;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
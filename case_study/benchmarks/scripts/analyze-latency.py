@@ -0,0 +1,204 @@
+#!/usr/bin/env python3
+"""
+Latency Distribution Analysis of Open-Loop Runs
+Compares the full latency distribution of ADAPT vs Layered, up to p99.99,
+from the HdrHistogram log (latency.hlog) written by the open-loop load generator (benchmarks/open-loop).
+Successful requests are compared on their own and together with failed ones (errors, and shed requests at the
+timeout), so an architecture cannot look faster by answering fewer requests.
+
+Usage:
+  python3 analyze-latency.py [results/<timestamp>]
+"""
+
+import json
+import sys
+import numpy as np
+from pathlib import Path
+from scipy import stats
+from typing import Dict, Optional
+
+from hdrlog import Histogram, read_log
+
+PERCENTILES = [50.0, 90.0, 99.0, 99.9, 99.99]
+ARCHITECTURES = ["adapt", "layered"]
+RUN_DIR = "{architecture}_OpenLoop"
+LOG_FILE = "latency.hlog"
+MICROS_PER_MS = 1000.0
+# p99 send delay above which the generator itself, not the system, accounts for part of the measured latency
+SCHEDULER_LAG_LIMIT_MS = 1.0
+
+
+class LatencyDistribution:
+    """Latency histogram from the generator's log, recorded in microseconds and reported in ms"""
+
+    def __init__(self, histogram: Histogram):
+        self.histogram = histogram
+
+    @property
+    def total(self) -> int:
+        return self.histogram.total
+
+    def percentile(self, p: float) -> Optional[float]:
+        value = self.histogram.value_at_percentile(p)
+        return value / MICROS_PER_MS if value is not None else None
+
+    def max(self) -> Optional[float]:
+        value = self.histogram.max_value()
+        return value / MICROS_PER_MS if value is not None else None
+
+    def samples(self) -> np.ndarray:
+        """Every recorded sample, at histogram resolution"""
+        return self.histogram.samples() / MICROS_PER_MS
+
+    def resolvable(self, p: float) -> bool:
+        """A percentile is only meaningful with enough samples beyond it (at least 10)"""
+        return self.total * (1 - p / 100.0) >= 10
+
+
+class LatencyAnalyzer:
+    def __init__(self, run_dir: Path):
+        self.run_dir = run_dir
+        self.logs: Dict[str, Dict[str, Histogram]] = {}
+
+    def load(self, architecture: str, *tags: str) -> Optional[LatencyDistribution]:
+        """Sum of the given series in an architecture's log; None without a log or any of the series"""
+        if architecture not in self.logs:
+            path = self.run_dir / RUN_DIR.format(architecture=architecture) / LOG_FILE
+            self.logs[architecture] = read_log(path) if path.exists() else {}
+        series = [self.logs[architecture][tag] for tag in tags if tag in self.logs[architecture]]
+        if not series:
+            return None
+        combined = Histogram(*series[0].layout)
+        for histogram in series:
+            combined.add(histogram)
+        return LatencyDistribution(combined)
+
+    def load_summary(self, architecture: str) -> Dict:
+        path = self.run_dir / RUN_DIR.format(architecture=architecture) / "summary.json"
+        if not path.exists():
+            return {}
+        with open(path) as f:
+            return json.load(f)
+
+    def describe(self, distribution: LatencyDistribution) -> Dict:
+        described = {"count": distribution.total, "max": distribution.max()}
+        for p in PERCENTILES:
+            described[f"p{p:g}"] = distribution.percentile(p)
+            described[f"p{p:g}_resolvable"] = distribution.resolvable(p)
+        return described
+
+    def scheduler_lag(self, architecture: str) -> Dict:
+        """How late the generator sent requests relative to their intended start (not a closed-loop comparison)"""
+        lag = self.load(architecture, "scheduler_lag")
+        if lag is None:
+            return {}
+        described = self.describe(lag)
+        p99 = described.get("p99")
+        described["generator_kept_schedule"] = p99 is not None and p99 <= SCHEDULER_LAG_LIMIT_MS
+        return described
+
+    def compare(self, adapt: LatencyDistribution, layered: LatencyDistribution) -> Dict:
+        """Per-percentile differences plus tests on the whole distribution"""
+        comparison = {"percentiles": {}}
+        for p in PERCENTILES:
+            a, l = adapt.percentile(p), layered.percentile(p)
+            if a is None or l is None:
+                continue
+            comparison["percentiles"][f"p{p:g}"] = {
+                "adapt": a,
+                "layered": l,
+                "improvement": round((l - a) / l * 100, 2) if l > 0 else 0,
+                "resolvable": adapt.resolvable(p) and layered.resolvable(p),
+            }
+
+        adapt_samples, layered_samples = adapt.samples(), layered.samples()
+        if len(adapt_samples) and len(layered_samples):
+            ks = stats.ks_2samp(adapt_samples, layered_samples)
+            mw = stats.mannwhitneyu(adapt_samples, layered_samples, alternative="two-sided")
+            comparison["ks_statistic"] = round(float(ks.statistic), 4)
+            comparison["ks_p_value"] = float(ks.pvalue)
+            comparison["mann_whitney_p_value"] = float(mw.pvalue)
+            comparison["distributions_differ"] = bool(ks.pvalue < 0.05)
+        return comparison
+
+    def generate_report(self) -> Dict:
+        report = {"run": self.run_dir.name, "architectures": {}}
+        for architecture in ARCHITECTURES:
+            corrected = self.load(architecture, "corrected")
+            if corrected is None:
+                continue
+            failed = self.load(architecture, "failed")
+            failed_count = failed.total if failed is not None else 0
+            scheduled = corrected.total + failed_count
+            report["architectures"][architecture] = {
+                "summary": self.load_summary(architecture),
+                "corrected": self.describe(corrected),
+                "failed": self.describe(failed) if failed is not None else {"count": 0},
+                "failed_percent": round(100.0 * failed_count / scheduled, 3) if scheduled else 0.0,
+                "scheduler_lag_ms": self.scheduler_lag(architecture),
+            }
+
+        adapt, layered = self.load("adapt", "corrected"), self.load("layered", "corrected")
+        if adapt is not None and layered is not None:
+            report["comparison"] = self.compare(adapt, layered)
+            report["comparison_all_requests"] = self.compare(self.load("adapt", "corrected", "failed"),
+                                                             self.load("layered", "corrected", "failed"))
+        return report
+
+
+def print_comparison(title: str, comparison: Dict):
+    print(f"\n{title}")
+    print(f"{'percentile':<12} {'ADAPT ms':>12} {'Layered ms':>12} {'improvement':>12}")
+    for name, row in comparison["percentiles"].items():
+        marker = "" if row["resolvable"] else "  (too few samples)"
+        print(f"{name:<12} {row['adapt']:>12.2f} {row['layered']:>12.2f} {row['improvement']:>11.2f}%{marker}")
+    if "ks_p_value" in comparison:
+        print(f"Kolmogorov-Smirnov D = {comparison['ks_statistic']}, p = {comparison['ks_p_value']:.3g}; "
+              f"Mann-Whitney p = {comparison['mann_whitney_p_value']:.3g}")
+
+
+def print_report(report: Dict):
+    if "comparison" in report:
+        print_comparison("Successful and timed-out requests", report["comparison"])
+        print_comparison("All requests, failed and shed included", report["comparison_all_requests"])
+    print("\nFailed or shed: " + ", ".join(f"{architecture} {data['failed_percent']:.3f}%"
+                                            for architecture, data in report["architectures"].items()))
+
+    for architecture, data in report["architectures"].items():
+        lag = data["scheduler_lag_ms"]
+        if lag:
+            print(f"\n{architecture}: generator scheduler lag (actual send - intended start)")
+            print("  " + ", ".join(f"p{p:g}: {lag[f'p{p:g}']:.2f} ms" for p in PERCENTILES
+                                   if lag.get(f"p{p:g}") is not None) + f", max: {lag['max']:.2f} ms")
+            if not lag["generator_kept_schedule"]:
+                print(f"  WARNING: p99 lag above {SCHEDULER_LAG_LIMIT_MS:g} ms; the generator fell behind its schedule "
+                      f"and part of the measured latency is its own. Rerun at a lower rate or with more CPU.")
+
+
+def main():
+    results_dir = Path(__file__).parent.parent / "results"
+    if len(sys.argv) > 1:
+        run_dir = Path(sys.argv[1])
+    else:
+        runs = sorted(d for d in results_dir.iterdir() if d.is_dir()) if results_dir.exists() else []
+        if not runs:
+            print("No benchmark results found!")
+            return
+        run_dir = runs[-1]
+
+    print(f"Analyzing open-loop latency from: {run_dir}")
+    report = LatencyAnalyzer(run_dir).generate_report()
+    if not report["architectures"]:
+        print(f"No {RUN_DIR.format(architecture='*')}/{LOG_FILE} with corrected latency found")
+        return
+
+    print_report(report)
+
+    output_file = run_dir.parent / f"{run_dir.name}_latency_analysis.json"
+    with open(output_file, 'w') as f:
+        json.dump(report, f, indent=2)
+    print(f"\nReport saved to: {output_file}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,139 @@
+"""
+Reader for HdrHistogram interval logs (.hlog), as written by HistogramLogWriter
+Decodes the compressed V2 histograms in pure Python, so analyses work at the recorder's own resolution
+rather than from the percentile ticks of an exported .hgrm file.
+"""
+
+import base64
+import math
+import struct
+import zlib
+import numpy as np
+from pathlib import Path
+from typing import Dict, Optional
+
+COMPRESSED_COOKIE_V2 = 0x1c849304
+ENCODING_COOKIE_V2 = 0x1c849303
+COOKIE_WORD_SIZE_BITS = 0xf0
+HEADER = struct.Struct(">iiiiqqd")
+
+
+class Histogram:
+    """Counts per HdrHistogram bucket index, for histograms sharing one layout"""
+
+    def __init__(self, significant_digits: int, lowest_discernible_value: int):
+        self.layout = (significant_digits, lowest_discernible_value)
+        largest_single_unit = 2 * 10 ** significant_digits
+        self.sub_bucket_half_count_magnitude = max(math.ceil(math.log2(largest_single_unit)), 1) - 1
+        self.sub_bucket_half_count = 1 << self.sub_bucket_half_count_magnitude
+        self.unit_magnitude = int(math.floor(math.log2(lowest_discernible_value)))
+        self.counts: Dict[int, int] = {}
+
+    def add(self, other: "Histogram"):
+        if other.layout != self.layout:
+            raise ValueError(f"Cannot add histograms with layouts {other.layout} and {self.layout}")
+        for index, count in other.counts.items():
+            self.counts[index] = self.counts.get(index, 0) + count
+
+    @property
+    def total(self) -> int:
+        return sum(self.counts.values())
+
+    def value_range(self, index: int):
+        """Lowest value and size of the range of values counted at an index"""
+        bucket = (index >> self.sub_bucket_half_count_magnitude) - 1
+        sub_bucket = (index & (self.sub_bucket_half_count - 1)) + self.sub_bucket_half_count
+        if bucket < 0:
+            sub_bucket -= self.sub_bucket_half_count
+            bucket = 0
+        return sub_bucket << (bucket + self.unit_magnitude), 1 << (bucket + self.unit_magnitude)
+
+    def value_at_percentile(self, p: float) -> Optional[int]:
+        """Highest value equivalent to the one at the given percentile, as Histogram.getValueAtPercentile"""
+        total = self.total
+        if total == 0:
+            return None
+        rank = max(int(min(max(p, 0.0), 100.0) / 100.0 * total + 0.5), 1)
+        seen = 0
+        for index in sorted(self.counts):
+            seen += self.counts[index]
+            if seen >= rank:
+                lowest, size = self.value_range(index)
+                return lowest if p == 0 else lowest + size - 1
+        return None
+
+    def max_value(self) -> Optional[int]:
+        if not self.counts:
+            return None
+        lowest, size = self.value_range(max(self.counts))
+        return lowest + size - 1
+
+    def samples(self) -> np.ndarray:
+        """One sample per recorded value, at the middle of its bucket"""
+        indexes = sorted(self.counts)
+        middles = []
+        for index in indexes:
+            lowest, size = self.value_range(index)
+            middles.append(lowest + (size >> 1))
+        return np.repeat(np.array(middles, dtype=float), [self.counts[index] for index in indexes])
+
+
+def decode(encoded: str) -> Histogram:
+    """One base64 compressed histogram, as found in the last column of an interval log line"""
+    data = base64.b64decode(encoded)
+    cookie, length = struct.unpack_from(">ii", data)
+    if cookie & ~COOKIE_WORD_SIZE_BITS != COMPRESSED_COOKIE_V2:
+        raise ValueError(f"Unsupported compressed histogram cookie {cookie:#x}")
+    payload = zlib.decompress(data[8:8 + length])
+    cookie, payload_length, normalizing_offset, digits, lowest, _, _ = HEADER.unpack_from(payload)
+    if cookie & ~COOKIE_WORD_SIZE_BITS != ENCODING_COOKIE_V2:
+        raise ValueError(f"Unsupported histogram encoding cookie {cookie:#x}")
+    if normalizing_offset != 0:
+        raise ValueError("Shifted histograms are not supported")
+
+    histogram = Histogram(digits, lowest)
+    position, end, index = HEADER.size, HEADER.size + payload_length, 0
+    while position < end:
+        count, position = _zigzag(payload, position)
+        if count < 0:
+            index += -count  # run of empty buckets
+        else:
+            if count:
+                histogram.counts[index] = count
+            index += 1
+    return histogram
+
+
+def _zigzag(data: bytes, position: int):
+    """LEB128 with a full ninth byte, then ZigZag, as HdrHistogram's ZigZagEncoding.getLong"""
+    value, shift = 0, 0
+    for byte_number in range(9):
+        byte = data[position]
+        position += 1
+        if byte_number == 8:
+            value |= byte << 56
+            break
+        value |= (byte & 0x7f) << shift
+        if not byte & 0x80:
+            break
+        shift += 7
+    return (value >> 1) ^ -(value & 1), position
+
+
+def read_log(path: Path) -> Dict[str, Histogram]:
+    """Sum of the interval histograms in a log, per tag ("" for untagged intervals)"""
+    totals: Dict[str, Histogram] = {}
+    with open(path) as f:
+        for line in f:
+            line = line.strip()
+            if not line or line.startswith("#") or line.startswith('"'):
+                continue
+            tag = ""
+            if line.startswith("Tag="):
+                tag, line = line[4:].split(",", 1)
+            interval = decode(line.split(",")[3])
+            if tag in totals:
+                totals[tag].add(interval)
+            else:
+                totals[tag] = interval
+    return totals
@@ -0,0 +1,421 @@
+#!/usr/bin/env python3
+"""
+Performance Regression Gate
+Stores a baseline per scenario and compares new runs against it with statistical tests
+
+Sources (auto-detected):
+  - Gatling run directory (js/stats.json): percentiles per request and group (saga latency), throughput, errors
+  - JMH JSON result (-rf json): score and allocation rate (gc.alloc.rate.norm, needs -prof gc)
+  - Pipeline harness JSON (--output): orders/s, events/s, per-hop latency percentiles
+  - Open-loop run directory (latency.hlog, summary.json): corrected latency distribution, throughput, errors
+
+Usage:
+  python3 perf-baseline.py record --results results/<timestamp>
+  python3 perf-baseline.py check  --results results/<timestamp>
+  python3 perf-baseline.py check  --source ../micro_adapt/adapt-common/target/jmh-result.json
+Exit status is 1 when a source yields no metrics, and for check when any metric regressed significantly.
+"""
+
+import argparse
+import json
+import re
+import sys
+import numpy as np
+from datetime import datetime, timezone
+from pathlib import Path
+from scipy import stats
+from typing import Dict, List, Optional
+
+from hdrlog import read_log
+
+BASELINE_DIR = Path(__file__).parent.parent / "baselines"
+GATLING_CONF = Path(__file__).parent.parent / "gatling" / "src" / "test" / "resources" / "gatling.conf"
+HISTORY_LIMIT = 10
+STORED_SAMPLES = 2000
+MIN_SAMPLES = 5
+TAIL_MIN_SAMPLES = 1000
+
+LOWER = "lower"    # lower is better (latency, allocation)
+HIGHER = "higher"  # higher is better (throughput)
+
+
+class GateError(Exception):
+    """A source that should have produced metrics did not; the gate must not pass on it"""
+
+
+class Metric:
+    """Either a sample distribution (one run yields many values) or a single value per run"""
+
+    def __init__(self, name: str, direction: str, unit: str, samples=None, value: float = None):
+        self.name = name
+        self.direction = direction
+        self.unit = unit
+        self.samples = np.asarray(samples, dtype=float) if samples is not None else None
+        self.value = value
+
+    @property
+    def summary(self) -> float:
+        return float(np.median(self.samples)) if self.samples is not None else float(self.value)
+
+
+# ---------------------------------------------------------------- sources
+
+def gatling_percentiles() -> List:
+    """(stats.json key, percentile) pairs, as configured in gatling.conf (charting.indicators)"""
+    configured = {1: 50.0, 2: 75.0, 3: 95.0, 4: 99.0}
+    if GATLING_CONF.exists():
+        for match in re.finditer(r"percentile([1-4])\s*=\s*([0-9.]+)", GATLING_CONF.read_text()):
+            configured[int(match.group(1))] = float(match.group(2))
+    return [(f"percentiles{i}", p) for i, p in sorted(configured.items())]
+
+
+def gatling_number(value) -> Optional[float]:
+    """stats.json writes "-" where a request has no ok responses"""
+    try:
+        return float(value)
+    except (TypeError, ValueError):
+        return None
+
+
+def gatling_metrics(run_dir: Path) -> Dict[str, Dict[str, Metric]]:
+    """Read js/stats.json of the HTML report; Gatling 3.10 writes simulation.log in a binary format"""
+    stats_file = next(run_dir.rglob("js/stats.json"), None)
+    if stats_file is None:
+        raise GateError(f"{run_dir}: no js/stats.json, generate the Gatling report (simulation.log alone is binary)")
+    with open(stats_file) as f:
+        root = json.load(f)
+
+    percentiles = gatling_percentiles()
+    metrics = {}
+
+    def add_latencies(kind: str, name: str, stats: Dict):
+        if not gatling_number(stats["numberOfRequests"]["ok"]):
+            return
+        for key, percentile in percentiles:
+            value = gatling_number(stats[key]["ok"])
+            if value is not None:
+                metric = f"{kind}:{name}:p{percentile:g}"
+                metrics[metric] = Metric(metric, LOWER, "ms", value=value)
+        mean = gatling_number(stats["meanResponseTime"]["ok"])
+        if mean is not None:
+            metrics[f"{kind}:{name}:mean"] = Metric(f"{kind}:{name}:mean", LOWER, "ms", value=mean)
+
+    def walk(contents: Dict):
+        for node in contents.values():
+            add_latencies("group" if node["type"] == "GROUP" else "latency", node.get("path") or node["name"],
+                          node["stats"])
+            walk(node.get("contents", {}))
+
+    walk(root.get("contents", {}))
+    stats = root["stats"]
+    total = gatling_number(stats["numberOfRequests"]["total"]) or 0
+    if total:
+        failed = gatling_number(stats["numberOfRequests"]["ko"]) or 0
+        metrics["error_rate"] = Metric("error_rate", LOWER, "%", value=100.0 * failed / total)
+        throughput = gatling_number(stats["meanNumberOfRequestsPerSecond"]["ok"])
+        if throughput is not None:
+            metrics["throughput"] = Metric("throughput", HIGHER, "req/s", value=throughput)
+    if not metrics:
+        raise GateError(f"{stats_file}: no requests recorded")
+    return {f"gatling:{run_dir.name}": metrics}
+
+
+def jmh_metrics(result_file: Path) -> Dict[str, Dict[str, Metric]]:
+    with open(result_file) as f:
+        results = json.load(f)
+
+    scenarios = {}
+    for result in results:
+        name = result["benchmark"]
+        params = result.get("params")
+        if params:
+            name += "(" + ",".join(f"{k}={v}" for k, v in sorted(params.items())) + ")"
+        primary = result["primaryMetric"]
+        direction = HIGHER if result.get("mode") == "thrpt" else LOWER
+        metrics = {"score": Metric("score", direction, primary.get("scoreUnit", ""),
+                                   samples=np.ravel(primary["rawData"]))}
+        alloc = result.get("secondaryMetrics", {}).get("·gc.alloc.rate.norm")
+        if alloc and alloc.get("rawData"):
+            metrics["alloc_rate_norm"] = Metric("alloc_rate_norm", LOWER, alloc.get("scoreUnit", "B/op"),
+                                                samples=np.ravel(alloc["rawData"]))
+        scenarios[f"jmh:{name}"] = metrics
+    return scenarios
+
+
+def harness_metrics(result_file: Path) -> Dict[str, Dict[str, Metric]]:
+    with open(result_file) as f:
+        result = json.load(f)
+
+    metrics = {
+        "orders_per_second": Metric("orders_per_second", HIGHER, "orders/s", value=result["ordersPerSecond"]),
+        "events_per_second": Metric("events_per_second", HIGHER, "events/s", value=result["eventsPerSecond"]),
+    }
+    for hop, values in result.get("hops", {}).items():
+        if not values.get("count"):
+            continue
+        for key in ("p50Ms", "p99Ms"):
+            name = f"{hop.lower()}:{key[:-2]}"
+            metrics[name] = Metric(name, LOWER, "ms", value=values[key])
+    return {f"harness:{result_file.stem}": metrics}
+
+
+def open_loop_metrics(run_dir: Path) -> Dict[str, Dict[str, Metric]]:
+    metrics = {}
+    corrected = read_log(run_dir / "latency.hlog").get("corrected")
+    if corrected is not None and corrected.total:
+        metrics["latency"] = Metric("latency", LOWER, "ms", samples=corrected.samples() / 1000.0)
+
+    summary_file = run_dir / "summary.json"
+    if summary_file.exists():
+        with open(summary_file) as f:
+            summary = json.load(f)
+        outcomes = summary.get("outcomes", {})
+        scheduled = sum(outcomes.values())
+        metrics["ok_per_second"] = Metric("ok_per_second", HIGHER, "req/s",
+                                          value=outcomes.get("ok", 0) / max(summary.get("duration_seconds", 1), 1))
+        if scheduled:
+            metrics["error_rate"] = Metric("error_rate", LOWER, "%",
+                                           value=100.0 * (scheduled - outcomes.get("ok", 0)) / scheduled)
+    return {f"open-loop:{run_dir.name}": metrics}
+
+
+def load_source(path: Path) -> Dict[str, Dict[str, Metric]]:
+    if path.is_dir():
+        if (path / "latency.hlog").exists():
+            return open_loop_metrics(path)
+        if next(path.rglob("simulation.log"), None) is not None or next(path.rglob("js/stats.json"), None):
+            return gatling_metrics(path)
+        return {}
+    if path.suffix == ".json":
+        with open(path) as f:
+            content = json.load(f)
+        if isinstance(content, list) and content and "benchmark" in content[0]:
+            return jmh_metrics(path)
+        if isinstance(content, dict) and "hops" in content:
+            return harness_metrics(path)
+    return {}
+
+
+def collect(args) -> Dict[str, Dict[str, Metric]]:
+    paths = [Path(p) for p in args.source or []]
+    if args.results:
+        results = Path(args.results)
+        paths += sorted(p for p in results.iterdir() if p.is_dir() or p.suffix == ".json")
+    scenarios = {}
+    for path in paths:
+        found = load_source(path)
+        if not found and args.source and str(path) in args.source:
+            print(f"Warning: no benchmark results recognized in {path}")
+        scenarios.update(found)
+    return scenarios
+
+
+# ---------------------------------------------------------------- baseline store
+
+def baseline_file(baseline_dir: Path, scenario: str) -> Path:
+    slug = "".join(c if c.isalnum() or c in "-_." else "_" for c in scenario)
+    return baseline_dir / f"{slug}.json"
+
+
+def load_baseline(baseline_dir: Path, scenario: str) -> Optional[Dict]:
+    path = baseline_file(baseline_dir, scenario)
+    if not path.exists():
+        return None
+    with open(path) as f:
+        return json.load(f)
+
+
+def record(scenarios: Dict[str, Dict[str, Metric]], baseline_dir: Path, label: str):
+    baseline_dir.mkdir(parents=True, exist_ok=True)
+    for scenario, metrics in scenarios.items():
+        baseline = load_baseline(baseline_dir, scenario) or {"scenario": scenario, "metrics": {}}
+        baseline["updated"] = datetime.now(timezone.utc).isoformat(timespec="seconds")
+        baseline["label"] = label
+        for name, metric in metrics.items():
+            stored = baseline["metrics"].get(name, {"history": []})
+            stored["direction"] = metric.direction
+            stored["unit"] = metric.unit
+            stored["history"] = (stored["history"] + [metric.summary])[-HISTORY_LIMIT:]
+            if metric.samples is not None:
+                # Quantiles keep the shape of the distribution at a bounded size
+                stored["samples"] = [round(float(v), 6) for v in representative(metric.samples)]
+            else:
+                stored.pop("samples", None)
+            baseline["metrics"][name] = stored
+        with open(baseline_file(baseline_dir, scenario), "w") as f:
+            json.dump(baseline, f, indent=2)
+        print(f"Recorded baseline for {scenario} ({len(metrics)} metrics)")
+
+
+def representative(samples: np.ndarray) -> np.ndarray:
+    if len(samples) <= STORED_SAMPLES:
+        return samples
+    return np.quantile(samples, np.linspace(0, 1, STORED_SAMPLES))
+
+
+# ---------------------------------------------------------------- comparison
+
+def relative_change(baseline: float, current: float, direction: str) -> float:
+    """Positive when current is worse than baseline"""
+    if baseline == 0:
+        return 0.0 if current == baseline else float("inf")
+    change = (current - baseline) / abs(baseline)
+    return change if direction == LOWER else -change
+
+
+def compare_samples(stored: Dict, metric: Metric, alpha: float, min_effect: float, tail_effect: float) -> Dict:
+    base = np.asarray(stored["samples"], dtype=float)
+    current = metric.samples
+    result = {
+        "baseline_median": float(np.median(base)),
+        "current_median": float(np.median(current)),
+        "baseline_p99": float(np.percentile(base, 99)),
+        "current_p99": float(np.percentile(current, 99)),
+    }
+    result["median_change"] = relative_change(result["baseline_median"], result["current_median"], metric.direction)
+    result["p99_change"] = relative_change(result["baseline_p99"], result["current_p99"], metric.direction)
+
+    if len(base) < MIN_SAMPLES or len(current) < MIN_SAMPLES:
+        result["test"] = "threshold"
+        result["regressed"] = result["median_change"] > min_effect
+        return result
+
+    # One-sided: is the current run shifted towards worse?
+    worse = "greater" if metric.direction == LOWER else "less"
+    mw = stats.mannwhitneyu(current, base, alternative=worse)
+    result["test"] = "mann-whitney"
+    result["p_value"] = float(mw.pvalue)
+    regressed = mw.pvalue < alpha and result["median_change"] > min_effect
+
+    # Tails can regress while the median holds (GC pauses, lock convoys); needs enough samples to see p99
+    if len(base) >= TAIL_MIN_SAMPLES and len(current) >= TAIL_MIN_SAMPLES:
+        ks = stats.ks_2samp(current, base)
+        result["ks_p_value"] = float(ks.pvalue)
+        if ks.pvalue < alpha and result["p99_change"] > tail_effect:
+            regressed = True
+            result["tail_regression"] = True
+    result["regressed"] = bool(regressed)
+    return result
+
+
+def compare_value(stored: Dict, metric: Metric, alpha: float, min_effect: float) -> Dict:
+    history = np.asarray(stored.get("history", []), dtype=float)
+    current = float(metric.value)
+    reference = float(np.mean(history)) if len(history) else current
+    result = {"baseline_mean": reference, "current": current,
+              "change": relative_change(reference, current, metric.direction)}
+
+    if len(history) >= 3 and np.std(history, ddof=1) > 0:
+        # Is the new value outside what the recorded runs vary by? (t prediction interval)
+        n = len(history)
+        scale = np.std(history, ddof=1) * np.sqrt(1 + 1 / n)
+        t = (current - reference) / scale
+        t = t if metric.direction == LOWER else -t
+        result["test"] = "t-prediction"
+        result["p_value"] = float(stats.t.sf(t, df=n - 1))
+        result["regressed"] = bool(result["p_value"] < alpha and result["change"] > min_effect)
+    else:
+        result["test"] = "threshold"
+        result["regressed"] = bool(result["change"] > min_effect)
+    return result
+
+
+def check(scenarios: Dict[str, Dict[str, Metric]], baseline_dir: Path, alpha: float,
+          min_effect: float, tail_effect: float) -> Dict:
+    report = {"alpha": alpha, "min_effect": min_effect, "tail_effect": tail_effect, "scenarios": {}}
+    for scenario, metrics in scenarios.items():
+        baseline = load_baseline(baseline_dir, scenario)
+        if baseline is None:
+            report["scenarios"][scenario] = {"status": "no baseline"}
+            continue
+        compared = {}
+        for name, metric in metrics.items():
+            stored = baseline["metrics"].get(name)
+            if stored is None:
+                continue
+            if metric.samples is not None and "samples" in stored:
+                compared[name] = compare_samples(stored, metric, alpha, min_effect, tail_effect)
+            else:
+                compared[name] = compare_value(stored, metric, alpha, min_effect)
+            compared[name]["unit"] = metric.unit
+        if not compared:
+            # e.g. a baseline recorded from another source format: passing would check nothing
+            report["scenarios"][scenario] = {"status": "nothing compared", "baseline": baseline.get("label")}
+            continue
+        regressed = [name for name, result in compared.items() if result["regressed"]]
+        report["scenarios"][scenario] = {
+            "status": "regressed" if regressed else "ok",
+            "baseline": baseline.get("label"),
+            "regressed": regressed,
+            "metrics": compared,
+        }
+    return report
+
+
+def print_report(report: Dict):
+    for scenario, data in report["scenarios"].items():
+        print(f"\n{scenario}: {data['status'].upper()}")
+        for name, result in data.get("metrics", {}).items():
+            if "current_median" in result:
+                line = (f"median {result['baseline_median']:.3f} -> {result['current_median']:.3f} "
+                        f"({result['median_change'] * 100:+.1f}% worse), "
+                        f"p99 {result['baseline_p99']:.3f} -> {result['current_p99']:.3f} {result['unit']}")
+            else:
+                line = (f"{result['baseline_mean']:.3f} -> {result['current']:.3f} {result['unit']} "
+                        f"({result['change'] * 100:+.1f}% worse)")
+            p_value = f", p={result['p_value']:.3g}" if "p_value" in result else ""
+            flag = "  << REGRESSION" if result["regressed"] else ""
+            print(f"  {name:<48} {line} [{result['test']}{p_value}]{flag}")
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Record performance baselines and gate runs against them")
+    parser.add_argument("command", choices=["record", "check"])
+    parser.add_argument("--results", help="benchmark results directory (results/<timestamp>)")
+    parser.add_argument("--source", action="append", help="Gatling run dir, JMH/harness JSON or open-loop dir")
+    parser.add_argument("--baseline-dir", default=str(BASELINE_DIR))
+    parser.add_argument("--label", default=None, help="baseline label, e.g. a git commit")
+    parser.add_argument("--alpha", type=float, default=0.01, help="significance level")
+    parser.add_argument("--min-effect", type=float, default=0.05,
+                        help="smallest relative slowdown of the median that counts as a regression")
+    parser.add_argument("--tail-effect", type=float, default=0.20,
+                        help="smallest relative p99 slowdown that counts as a tail regression")
+    parser.add_argument("--report", help="write the comparison as JSON")
+    args = parser.parse_args()
+
+    if not args.results and not args.source:
+        parser.error("give --results and/or --source")
+    try:
+        scenarios = collect(args)
+    except GateError as e:
+        print(f"Error: {e}")
+        return 1
+    if not scenarios:
+        print("No benchmark results found!")
+        return 1
+    baseline_dir = Path(args.baseline_dir)
+
+    if args.command == "record":
+        label = args.label or (Path(args.results).name if args.results else "manual")
+        record(scenarios, baseline_dir, label)
+        return 0
+
+    report = check(scenarios, baseline_dir, args.alpha, args.min_effect, args.tail_effect)
+    print_report(report)
+    if args.report:
+        with open(args.report, "w") as f:
+            json.dump(report, f, indent=2)
+    regressed = [s for s, data in report["scenarios"].items() if data["status"] == "regressed"]
+    if regressed:
+        print(f"\nPerformance regression in: {', '.join(regressed)}")
+        return 1
+    unchecked = [s for s, data in report["scenarios"].items() if data["status"] == "nothing compared"]
+    if unchecked:
+        print(f"\nNo metric matched the baseline of: {', '.join(unchecked)} (record a new baseline)")
+        return 1
+    print("\nNo significant regressions")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
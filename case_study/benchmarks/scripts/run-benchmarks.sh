@@ -24,8 +24,21 @@ run_gatling() {
     cd "$BENCHMARK_DIR/gatling"
     mvn gatling:test -Dgatling.simulationClass=simulations.$simulation
 
-    # Copy results
-    cp -r target/gatling/*/ "$RESULTS_DIR/$TIMESTAMP/${architecture}_${simulation}/"
+    # Copy this run's report only: target/gatling keeps every earlier run as well
+    local latest
+    latest=$(ls -td target/gatling/*/ | head -1)
+    mkdir -p "$RESULTS_DIR/$TIMESTAMP/${architecture}_${simulation}"
+    cp -r "${latest}." "$RESULTS_DIR/$TIMESTAMP/${architecture}_${simulation}/"
+}
+
+# Function to run the open-loop load generator (constant arrival rate, latency from intended start time)
+run_open_loop() {
+    local architecture=$1
+    echo "Running open-loop load at ${OPEN_LOOP_RATE:-100}/s on $architecture architecture..."
+
+    cd "$BENCHMARK_DIR/open-loop"
+    mvn -q compile exec:java -Dexec.args="--architecture=$architecture --rate=${OPEN_LOOP_RATE:-100} \
+        --duration-seconds=${OPEN_LOOP_DURATION:-120} --output=$RESULTS_DIR/$TIMESTAMP/${architecture}_OpenLoop"
 }
 
 # Function to collect metrics
@@ -36,8 +49,29 @@ collect_metrics() {
     curl -s "http://localhost:9090/api/v1/query?query=process_cpu_seconds_total" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_cpu.json"
     curl -s "http://localhost:9090/api/v1/query?query=jvm_memory_used_bytes" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_memory.json"
     curl -s "http://localhost:9090/api/v1/query?query=http_server_requests_seconds_count" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_requests.json"
+    # Gateway adaptive concurrency: accepted/rejected/dropped requests and the limit each backend settled at
+    curl -s "http://localhost:9090/api/v1/query?query=adapt_gateway_concurrency_requests_total" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_concurrency_requests.json"
+    curl -s "http://localhost:9090/api/v1/query?query=adapt_gateway_concurrency_limit" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_concurrency_limit.json"
+    # Error budget burn per service and objective over the last hour (adapt.slo.burn.rate)
+    curl -s "http://localhost:9090/api/v1/query?query=adapt_slo_burn_rate%7Bwindow%3D%221h%22%7D" > "$RESULTS_DIR/$TIMESTAMP/${architecture}_slo_burn.json"
 }
 
+# Optional: the same load with synchronous logging, recorded as the baseline the async run is compared to
+if [ "${LOGGING_COMPARISON:-false}" = "true" ]; then
+    echo ""
+    echo "=== Logging Comparison: synchronous console logging ==="
+    echo ""
+    ADAPT_EXTRA_PROFILES=",sync-logging" docker-compose -f ../../micro_adapt/docker-compose.yml up -d
+    sleep 30
+    python3 "$SCRIPT_DIR/seed-data.py" adapt
+    run_gatling "ConcurrentOrdersSimulation" "adapt"
+    mkdir -p "$RESULTS_DIR/$TIMESTAMP/sync-logging"
+    mv "$RESULTS_DIR/$TIMESTAMP/adapt_ConcurrentOrdersSimulation" "$RESULTS_DIR/$TIMESTAMP/sync-logging/"
+    python3 "$SCRIPT_DIR/perf-baseline.py" record --source "$RESULTS_DIR/$TIMESTAMP/sync-logging/adapt_ConcurrentOrdersSimulation" \
+        --baseline-dir "$RESULTS_DIR/$TIMESTAMP/sync-logging/baseline" --label sync-logging
+    docker-compose -f ../../micro_adapt/docker-compose.yml down
+fi
+
 # Benchmark ADAPT Architecture
 echo ""
 echo "=== Testing ADAPT Microservices Architecture ==="
@@ -47,6 +81,9 @@ echo ""
 docker-compose -f ../../micro_adapt/docker-compose.yml up -d
 sleep 30 # Wait for services to start
 
+# Seed the catalog and users the workload feeders draw from
+python3 "$SCRIPT_DIR/seed-data.py" adapt
+
 run_gatling "BaselineSimulation" "adapt"
 sleep 10
 run_gatling "OrderFlowSimulation" "adapt"
@@ -56,6 +93,10 @@ sleep 10
 run_gatling "RampUpSimulation" "adapt"
 sleep 10
 run_gatling "SpikeTestSimulation" "adapt"
+sleep 10
+run_gatling "SagaLatencySimulation" "adapt"
+sleep 10
+run_open_loop "adapt"
 
 collect_metrics "adapt"
 
@@ -70,11 +111,17 @@ echo ""
 docker-compose -f ../../layered/docker-compose.yml up -d
 sleep 30
 
+python3 "$SCRIPT_DIR/seed-data.py" layered
+
 run_gatling "BaselineSimulation" "layered"
 sleep 10
 run_gatling "OrderFlowSimulation" "layered"
 sleep 10
 run_gatling "ConcurrentOrdersSimulation" "layered"
+sleep 10
+MAVEN_OPTS="-Darchitecture=layered" run_gatling "SagaLatencySimulation" "layered"
+sleep 10
+run_open_loop "layered"
 
 collect_metrics "layered"
 
@@ -86,3 +133,17 @@ echo "========================================"
 echo "Benchmarks Complete!"
 echo "Results saved to: $RESULTS_DIR/$TIMESTAMP"
 echo "========================================"
+
+if [ "${LOGGING_COMPARISON:-false}" = "true" ]; then
+    echo ""
+    echo "=== Logging Comparison: async vs synchronous (negative change = async is better) ==="
+    python3 "$SCRIPT_DIR/perf-baseline.py" check --source "$RESULTS_DIR/$TIMESTAMP/adapt_ConcurrentOrdersSimulation" \
+        --baseline-dir "$RESULTS_DIR/$TIMESTAMP/sync-logging/baseline" \
+        --report "$RESULTS_DIR/$TIMESTAMP/logging-comparison.json" || echo "Async logging was slower than synchronous logging"
+fi
+
+# Gate against the recorded baselines (exits non-zero on a significant regression)
+echo ""
+echo "=== Performance Regression Check ==="
+python3 "$SCRIPT_DIR/perf-baseline.py" check --results "$RESULTS_DIR/$TIMESTAMP" \
+    --report "$RESULTS_DIR/$TIMESTAMP/regression-report.json"
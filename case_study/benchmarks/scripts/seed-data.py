@@ -0,0 +1,107 @@
+#!/usr/bin/env python3
+"""
+Seed Data Loader for the Gatling workload model
+Creates the product catalog (ids 1..catalog-size) and user population (ids 1..user-population)
+that simulations/workload/WorkloadFeeders.scala draws from, in either architecture.
+
+Rows are generated server-side with generate_series, so large catalogs load in seconds.
+Seeded ids are small integers; application-assigned time-ordered ids are far above them.
+
+Usage:
+  python3 seed-data.py adapt   --catalog-size 1000 --user-population 10000
+  python3 seed-data.py layered --catalog-size 1000 --user-population 10000
+  python3 seed-data.py adapt   --print   # only print the SQL
+"""
+
+import argparse
+import subprocess
+import sys
+
+# Keep in sync with WorkloadFeeders.price (unit price in cents: 500 + id * 7919 mod 20000)
+PRICE_SQL = "(500 + (g::bigint * 7919) % 20000) / 100.0"
+
+# Generous stock so hot products never run out; contention, not sell-outs, is what we measure
+STOCK = 1_000_000
+
+TARGETS = {
+    "adapt": {
+        "products": ("db-inventory", "inventory_db"),
+        "users": ("db-user", "user_db"),
+        "reserved_quantity": True,
+        "identity": False,
+    },
+    "layered": {
+        "products": ("ecommerce-layered-db", "ecommerce_layered"),
+        "users": ("ecommerce-layered-db", "ecommerce_layered"),
+        "reserved_quantity": False,
+        "identity": True,
+    },
+}
+
+
+def products_sql(catalog_size: int, reserved_quantity: bool, identity: bool) -> str:
+    reserved_column = ", reserved_quantity" if reserved_quantity else ""
+    reserved_value = ", 0" if reserved_quantity else ""
+    sql = f"""
+INSERT INTO products (id, name, description, price, stock_quantity{reserved_column}, sku, created_at, updated_at)
+SELECT g, 'Product ' || g, 'Seeded benchmark product ' || g, {PRICE_SQL}, {STOCK}{reserved_value},
+       'SKU-' || lpad(g::text, 8, '0'), now(), now()
+FROM generate_series(1, {catalog_size}) AS g
+ON CONFLICT (id) DO UPDATE SET price = EXCLUDED.price, stock_quantity = EXCLUDED.stock_quantity{
+        ", reserved_quantity = 0" if reserved_quantity else ""};
+"""
+    if identity:
+        sql += "SELECT setval(pg_get_serial_sequence('products', 'id'), (SELECT max(id) FROM products));\n"
+    return sql
+
+
+def users_sql(user_population: int, identity: bool) -> str:
+    sql = f"""
+INSERT INTO users (id, username, email, password, full_name, created_at, updated_at)
+SELECT g, 'user' || g, 'user' || g || '@bench.local', 'seeded', 'Benchmark User ' || g, now(), now()
+FROM generate_series(1, {user_population}) AS g
+ON CONFLICT (id) DO NOTHING;
+"""
+    if identity:
+        sql += "SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT max(id) FROM users));\n"
+    return sql
+
+
+def apply(container: str, database: str, sql: str):
+    print(f"Seeding {database} in {container}...")
+    subprocess.run(
+        ["docker", "exec", "-i", container, "psql", "-v", "ON_ERROR_STOP=1", "-q", "-U", "postgres", "-d", database],
+        input=sql.encode(), check=True)
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Seed products and users for the benchmark workload")
+    parser.add_argument("architecture", choices=sorted(TARGETS))
+    parser.add_argument("--catalog-size", type=int, default=1000)
+    parser.add_argument("--user-population", type=int, default=10000)
+    parser.add_argument("--print", action="store_true", help="print the SQL instead of applying it")
+    args = parser.parse_args()
+
+    target = TARGETS[args.architecture]
+    statements = [
+        (target["products"], products_sql(args.catalog_size, target["reserved_quantity"], target["identity"])),
+        (target["users"], users_sql(args.user_population, target["identity"])),
+    ]
+
+    for (container, database), sql in statements:
+        if args.print:
+            print(f"-- {container}/{database}{sql}")
+        else:
+            apply(container, database, sql)
+
+    if not args.print:
+        print(f"Seeded {args.catalog_size} products and {args.user_population} users "
+              f"({args.architecture}); run Gatling with -DcatalogSize={args.catalog_size} "
+              f"-DuserPopulation={args.user_population}")
+
+
+if __name__ == "__main__":
+    try:
+        main()
+    except subprocess.CalledProcessError as e:
+        sys.exit(e.returncode)
@@ -0,0 +1,45 @@
+package com.research.adapt.common.id;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation rate of time-ordered ids vs the random UUIDs they replace, single-threaded and contended.
+ * Run with: mvn -Pjmh -pl adapt-common verify
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeOrderedIdGeneratorBenchmark {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public long timeOrderedId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long timeOrderedIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID randomUuidContended() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,19 @@
+package com.research.adapt.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity id as generated by {@link TimeOrderedIds}, replacing
+ * {@code @GeneratedValue(strategy = GenerationType.IDENTITY)}.
+ * The id is assigned before the INSERT, so Hibernate can batch inserts.
+ */
+@IdGeneratorType(TimeOrderedIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
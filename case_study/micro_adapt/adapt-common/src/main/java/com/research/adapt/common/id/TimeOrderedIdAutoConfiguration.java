@@ -0,0 +1,40 @@
+package com.research.adapt.common.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Applies adapt.id.node-id to the process-wide generator and fails startup when no node id is configured.
+ * Node ids only have to differ between replicas of the same service, since each service owns its database.
+ * adapt.id.allow-derived-node-id=true falls back to a host-name hash for local development.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "org.hibernate.id.IdentifierGenerator")
+public class TimeOrderedIdAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeOrderedIdAutoConfiguration.class);
+
+    @Bean
+    public TimeOrderedIdGenerator timeOrderedIdGenerator(@Value("${adapt.id.node-id:-1}") int nodeId,
+                                                         @Value("${adapt.id.allow-derived-node-id:false}") boolean allowDerived) {
+        if (nodeId >= 0) {
+            TimeOrderedIds.configure(nodeId);
+        } else if (!TimeOrderedIds.isConfigured()) {
+            if (!allowDerived) {
+                throw new IllegalStateException("No node id configured for time-ordered ids: set ADAPT_NODE_ID or "
+                        + "adapt.id.node-id to a value unique among the replicas of this service "
+                        + "(adapt.id.allow-derived-node-id=true derives one from the host name for local development)");
+            }
+            int derived = TimeOrderedIds.derivedNodeId();
+            log.warn("Deriving time-ordered id node id {} from the host name; replicas may collide", derived);
+            TimeOrderedIds.configure(derived);
+        }
+        TimeOrderedIdGenerator generator = TimeOrderedIds.generator();
+        log.info("Time-ordered id generator using node id {}", generator.getNodeId());
+        return generator;
+    }
+}
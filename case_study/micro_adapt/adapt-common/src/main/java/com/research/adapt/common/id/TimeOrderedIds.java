@@ -0,0 +1,59 @@
+package com.research.adapt.common.id;
+
+import java.net.InetAddress;
+
+/**
+ * Process-wide {@link TimeOrderedIdGenerator}
+ * Hibernate instantiates id generators itself, so the configured generator is published here.
+ * The node id comes from ADAPT_NODE_ID or {@link #configure(int)}; ids are refused until one of them is set,
+ * because two replicas sharing a node id hand out colliding ids.
+ */
+public final class TimeOrderedIds {
+
+    private static volatile TimeOrderedIdGenerator generator = fromEnvironment();
+
+    private TimeOrderedIds() {
+    }
+
+    public static long nextId() {
+        return generator().nextId();
+    }
+
+    public static TimeOrderedIdGenerator generator() {
+        TimeOrderedIdGenerator current = generator;
+        if (current == null) {
+            throw new IllegalStateException("No node id configured for time-ordered ids: set ADAPT_NODE_ID or adapt.id.node-id");
+        }
+        return current;
+    }
+
+    public static boolean isConfigured() {
+        return generator != null;
+    }
+
+    public static void configure(int nodeId) {
+        TimeOrderedIdGenerator current = generator;
+        if (current == null || current.getNodeId() != nodeId) {
+            generator = new TimeOrderedIdGenerator(nodeId);
+        }
+    }
+
+    /**
+     * Host-name derived node id, only for single-host development: two replicas collide with a chance of 1 in 1024.
+     */
+    static int derivedNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & TimeOrderedIdGenerator.MAX_NODE_ID;
+        } catch (Exception e) {
+            return (int) (ProcessHandle.current().pid() & TimeOrderedIdGenerator.MAX_NODE_ID);
+        }
+    }
+
+    private static TimeOrderedIdGenerator fromEnvironment() {
+        String configured = System.getenv("ADAPT_NODE_ID");
+        if (configured == null || configured.isBlank()) {
+            return null;
+        }
+        return new TimeOrderedIdGenerator(Integer.parseInt(configured.trim()));
+    }
+}
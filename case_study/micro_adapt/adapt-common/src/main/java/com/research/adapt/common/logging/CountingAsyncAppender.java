@@ -0,0 +1,37 @@
+package com.research.adapt.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts what it throws away, published as adapt.logging.events.dropped:
+ * reason=discarded for TRACE to INFO events shed once the queue is past its discarding threshold,
+ * reason=queue-full for events of any level lost because the queue was full and neverBlock is set.
+ * The check runs just before the base class makes the same decision, so under contention a count may be off by a few.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder queueFull = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+        } else if (remaining == 0 && isNeverBlock()) {
+            queueFull.increment();
+        }
+        super.append(event);
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    public long getQueueFull() {
+        return queueFull.sum();
+    }
+}
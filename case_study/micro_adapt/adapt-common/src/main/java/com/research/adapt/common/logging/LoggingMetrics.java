@@ -0,0 +1,61 @@
+package com.research.adapt.common.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes what the logging setup in adapt-logback.xml drops:
+ * adapt.logging.events.dropped (appender or filter, reason sampled/discarded/queue-full)
+ * and adapt.logging.queue.remaining, the free capacity of each async appender.
+ */
+public class LoggingMetrics implements MeterBinder {
+
+    private final LoggerContext loggerContext;
+
+    public LoggingMetrics(LoggerContext loggerContext) {
+        this.loggerContext = loggerContext;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TurboFilter filter : loggerContext.getTurboFilterList()) {
+            if (filter instanceof SamplingTurboFilter sampling) {
+                dropped(registry, sampling, SamplingTurboFilter::getSampledOut, "filter", name(filter), "sampled");
+            }
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+                loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof CountingAsyncAppender async) {
+                dropped(registry, async, CountingAsyncAppender::getDiscarded, "appender", async.getName(), "discarded");
+                dropped(registry, async, CountingAsyncAppender::getQueueFull, "appender", async.getName(), "queue-full");
+                Gauge.builder("adapt.logging.queue.remaining", async, CountingAsyncAppender::getRemainingCapacity)
+                        .description("Free slots in the async appender's queue")
+                        .tag("appender", async.getName())
+                        .register(registry);
+            }
+        }
+    }
+
+    private static <T> void dropped(MeterRegistry registry, T source, ToDoubleFunction<T> count,
+                                    String sourceTag, String sourceName, String reason) {
+        FunctionCounter.builder("adapt.logging.events.dropped", source, count)
+                .description("Log events not written: sampled out, discarded or lost to a full queue")
+                .tags(sourceTag, sourceName, "reason", reason)
+                .register(registry);
+    }
+
+    private static String name(TurboFilter filter) {
+        return filter.getName() != null ? filter.getName() : "sampling";
+    }
+}
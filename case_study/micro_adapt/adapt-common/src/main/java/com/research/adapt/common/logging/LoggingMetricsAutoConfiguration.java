@@ -0,0 +1,37 @@
+package com.research.adapt.common.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Registers {@link LoggingMetrics} when the service logs through Logback.
+ */
+@AutoConfiguration
+@ConditionalOnClass({LoggerContext.class, MeterRegistry.class})
+@Conditional(LoggingMetricsAutoConfiguration.LogbackLoggingCondition.class)
+public class LoggingMetricsAutoConfiguration {
+
+    @Bean
+    public LoggingMetrics adaptLoggingMetrics() {
+        return new LoggingMetrics((LoggerContext) LoggerFactory.getILoggerFactory());
+    }
+
+    static class LogbackLoggingCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return LoggerFactory.getILoggerFactory() instanceof LoggerContext
+                    ? ConditionOutcome.match("Logback is the SLF4J backend")
+                    : ConditionOutcome.noMatch("SLF4J is not bound to Logback");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.research.adapt.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-samples hot-path log statements: each logger under one of the configured prefixes may emit at most
+ * permitsPerSecond events per second at or below the sampled level (INFO by default); the rest are denied
+ * before the event is even created. Statements with a throwable, and anything above the sampled level, always pass.
+ * Denied events are counted and published as adapt.logging.events.dropped{reason=sampled}.
+ * <pre>
+ * &lt;turboFilter class="com.research.adapt.common.logging.SamplingTurboFilter"&gt;
+ *     &lt;logger&gt;com.research.adapt&lt;/logger&gt;
+ *     &lt;permitsPerSecond&gt;20&lt;/permitsPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Window UNSAMPLED = new Window();
+
+    private final List<String> loggers = new ArrayList<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder sampledOut = new LongAdder();
+    private int permitsPerSecond = 20;
+    private Level level = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; those must not use up permits
+        if (!isStarted() || format == null || t != null || level.toInt() > this.level.toInt()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> sampled(name) ? new Window() : UNSAMPLED);
+        if (window == UNSAMPLED || window.tryAcquire(System.currentTimeMillis() / 1000, permitsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    private boolean sampled(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.equals(prefix) || loggerName.startsWith(prefix + '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    /** Fixed one-second window; a lost reset race only lets a few extra events through */
+    private static final class Window {
+
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private boolean tryAcquire(long now, int permits) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= permits;
+        }
+    }
+}
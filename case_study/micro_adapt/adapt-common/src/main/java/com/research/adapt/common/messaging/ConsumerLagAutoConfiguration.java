@@ -0,0 +1,33 @@
+package com.research.adapt.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Starts a {@link ConsumerLagMonitor} in every service with Kafka listeners.
+ * Uses the admin client settings of Boot's KafkaAdmin (spring.kafka.*). Turn off with adapt.kafka.lag.enabled=false.
+ */
+@AutoConfiguration(after = ListenerConcurrencyAutoConfiguration.class, afterName = {
+        "org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
+@ConditionalOnClass({KafkaAdmin.class, MeterRegistry.class})
+@ConditionalOnProperty(name = "adapt.kafka.lag.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConsumerLagProperties.class)
+public class ConsumerLagAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean({KafkaAdmin.class, KafkaListenerEndpointRegistry.class, MeterRegistry.class})
+    public ConsumerLagMonitor consumerLagMonitor(ConsumerLagProperties properties, KafkaAdmin kafkaAdmin,
+                                                 MeterRegistry meterRegistry, KafkaListenerEndpointRegistry listenerRegistry,
+                                                 ListenerConcurrencyCoordinator coordinator) {
+        return new ConsumerLagMonitor(properties, kafkaAdmin.getConfigurationProperties(), listenerRegistry,
+                coordinator, meterRegistry);
+    }
+}
@@ -0,0 +1,384 @@
+package com.research.adapt.common.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes consumer lag for every listener container of the service, per partition of its topics, both in records
+ * (adapt.kafka.consumer.lag: log end offset minus the group's committed offset) and in time
+ * (adapt.kafka.consumer.lag.seconds: how long ago the log end was where the group has committed up to,
+ * interpolated from periodic log end samples, so it needs no extra consumer).
+ * <p>
+ * From the lag, the rate events arrive at and the listener's processing time (adapt.kafka.listener.processing,
+ * see {@link EventLatencyInterceptor}) it derives adapt.kafka.consumer.concurrency.recommended: the listener threads
+ * per instance that keep up with arrivals and drain the backlog within the drain target at the target utilization,
+ * capped by the partition count. With adapt.kafka.lag.autoscale.enabled the containers are restarted with it,
+ * through the {@link ListenerConcurrencyCoordinator} that runtime tuning uses as well.
+ */
+public class ConsumerLagMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+    // Arrival rate is taken over the most recent samples only, so it follows load changes
+    private static final int RATE_SAMPLES = 6;
+
+    private final ConsumerLagProperties properties;
+    private final Map<String, Object> adminConfig;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ListenerConcurrencyCoordinator coordinator;
+    private final MeterRegistry meterRegistry;
+    private final MultiGauge lagRecords;
+    private final MultiGauge lagSeconds;
+    private final Map<TopicPartition, EndOffsetHistory> endOffsets = new HashMap<>();
+    private final Map<String, ContainerState> containers = new HashMap<>();
+
+    private Admin admin;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ConsumerLagMonitor(ConsumerLagProperties properties, Map<String, Object> adminConfig,
+                              KafkaListenerEndpointRegistry listenerRegistry, ListenerConcurrencyCoordinator coordinator,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.adminConfig = adminConfig;
+        this.listenerRegistry = listenerRegistry;
+        this.coordinator = coordinator;
+        this.meterRegistry = meterRegistry;
+        this.lagRecords = MultiGauge.builder("adapt.kafka.consumer.lag")
+                .description("Records between the log end and the consumer group's committed offset")
+                .baseUnit("records")
+                .register(meterRegistry);
+        this.lagSeconds = MultiGauge.builder("adapt.kafka.consumer.lag.seconds")
+                .description("Age of the oldest event the consumer group has not committed yet")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        admin = Admin.create(adminConfig);
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "consumer-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::evaluateSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        admin.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // After the listener containers have started
+        return Integer.MAX_VALUE - 50;
+    }
+
+    private void evaluateSafely() {
+        try {
+            evaluate();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Consumer lag evaluation failed: {}", e.toString());
+        }
+    }
+
+    private void evaluate() throws Exception {
+        long timeoutMillis = properties.getInterval().toMillis();
+        List<MessageListenerContainer> listeners = new ArrayList<>();
+        Set<String> groups = new HashSet<>();
+        Set<String> topics = new HashSet<>();
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            String[] containerTopics = container.getContainerProperties().getTopics();
+            if (container.getGroupId() == null || containerTopics == null || !container.isRunning()) {
+                continue;
+            }
+            listeners.add(container);
+            groups.add(container.getGroupId());
+            topics.addAll(Arrays.asList(containerTopics));
+        }
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        Map<String, TopicDescription> descriptions = admin.describeTopics(topics).allTopicNames()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        descriptions.values().forEach(topic -> topic.partitions().forEach(
+                partition -> latest.put(new TopicPartition(topic.name(), partition.partition()), OffsetSpec.latest())));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(latest).all()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        long now = System.currentTimeMillis();
+        ends.forEach((partition, end) -> endOffsets
+                .computeIfAbsent(partition, p -> new EndOffsetHistory(properties.getHistory()))
+                .add(now, end.offset()));
+
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> committed = new HashMap<>();
+        for (String group : groups) {
+            committed.put(group, admin.listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata()
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS));
+        }
+        Map<String, ConsumerGroupDescription> members = admin.describeConsumerGroups(groups).all()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        List<MultiGauge.Row<?>> recordRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> secondRows = new ArrayList<>();
+        Set<String> reported = new HashSet<>();
+        for (MessageListenerContainer container : listeners) {
+            String group = container.getGroupId();
+            List<String> containerTopics = Arrays.asList(container.getContainerProperties().getTopics());
+            Map<TopicPartition, OffsetAndMetadata> groupOffsets = committed.getOrDefault(group, Map.of());
+            long lag = 0;
+            double arrivalRate = 0;
+            int partitions = 0;
+            for (TopicPartition partition : ends.keySet()) {
+                if (!containerTopics.contains(partition.topic())) {
+                    continue;
+                }
+                partitions++;
+                EndOffsetHistory history = endOffsets.get(partition);
+                arrivalRate += history.ratePerSecond();
+                OffsetAndMetadata offset = groupOffsets.get(partition);
+                if (offset == null) {
+                    continue;
+                }
+                long partitionLag = Math.max(0, history.latestOffset() - offset.offset());
+                lag += partitionLag;
+                // Containers of one group may share a topic; report each partition once
+                if (reported.add(group + '\u0000' + partition)) {
+                    Tags tags = Tags.of("group", group, "topic", partition.topic(),
+                            "partition", Integer.toString(partition.partition()));
+                    recordRows.add(MultiGauge.Row.of(tags, partitionLag));
+                    secondRows.add(MultiGauge.Row.of(tags, history.lagMillis(offset.offset(), now) / 1000.0));
+                }
+            }
+
+            ContainerState state = containers.computeIfAbsent(container.getListenerId(), id -> register(container));
+            int localConsumers = localConsumers(listeners, group);
+            ConsumerGroupDescription description = members.get(group);
+            int instances = description == null || localConsumers == 0
+                    ? 1 : Math.max(1, Math.round((float) description.members().size() / localConsumers));
+            state.update(lag, arrivalRate, partitions, instances, serviceSeconds(state, group, containerTopics));
+            if (properties.getAutoscale().isEnabled()) {
+                autoscale(container, state);
+            }
+        }
+        lagRecords.register(recordRows, true);
+        lagSeconds.register(secondRows, true);
+    }
+
+    private ContainerState register(MessageListenerContainer container) {
+        ContainerState state = new ContainerState(concurrency(container));
+        Tags tags = Tags.of("listener", container.getListenerId(), "group", container.getGroupId());
+        Gauge.builder("adapt.kafka.consumer.concurrency.recommended", state, s -> s.recommended)
+                .description("Listener threads per instance needed to keep up and drain the backlog in time")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("adapt.kafka.consumer.concurrency", container, ConsumerLagMonitor::concurrency)
+                .description("Listener threads per instance")
+                .tags(tags)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private Double serviceSeconds(ContainerState state, String group, Collection<String> topics) {
+        long count = 0;
+        double totalSeconds = 0;
+        for (Timer timer : meterRegistry.find("adapt.kafka.listener.processing").tag("group", group).timers()) {
+            if (topics.contains(timer.getId().getTag("topic"))) {
+                count += timer.count();
+                totalSeconds += timer.totalTime(TimeUnit.SECONDS);
+            }
+        }
+        return state.serviceSeconds(count, totalSeconds);
+    }
+
+    private void autoscale(MessageListenerContainer container, ContainerState state) {
+        if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent)) {
+            return;
+        }
+        ConsumerLagProperties.Autoscale autoscale = properties.getAutoscale();
+        int upper = autoscale.getMaxConcurrency() > 0
+                ? Math.min(autoscale.getMaxConcurrency(), state.partitions) : state.partitions;
+        int target = Math.max(autoscale.getMinConcurrency(), Math.min(upper, state.recommended));
+        int current = coordinator.concurrency(concurrent);
+        if (!state.agrees(target, current, autoscale.getStableIntervals())) {
+            return;
+        }
+        log.info("Changing concurrency of listener {} from {} to {} (lag {} records, {} events/s arriving)",
+                container.getListenerId(), current, target, state.lag, String.format("%.1f", state.arrivalRate));
+        coordinator.reconfigure(concurrent, target, c -> { });
+    }
+
+    private static int localConsumers(List<MessageListenerContainer> listeners, String group) {
+        return listeners.stream()
+                .filter(container -> group.equals(container.getGroupId()))
+                .mapToInt(ConsumerLagMonitor::concurrency)
+                .sum();
+    }
+
+    private static int concurrency(MessageListenerContainer container) {
+        return container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent ? concurrent.getConcurrency() : 1;
+    }
+
+    /**
+     * Recommendation and the inputs behind it for one listener container.
+     */
+    private final class ContainerState {
+
+        private volatile int recommended;
+        private long lag;
+        private double arrivalRate;
+        private int partitions;
+        private long lastCount = -1;
+        private double lastTotalSeconds;
+        private Double meanServiceSeconds;
+        private int candidate;
+        private int streak;
+
+        private ContainerState(int concurrency) {
+            this.recommended = concurrency;
+        }
+
+        private Double serviceSeconds(long count, double totalSeconds) {
+            if (lastCount >= 0 && count > lastCount) {
+                meanServiceSeconds = (totalSeconds - lastTotalSeconds) / (count - lastCount);
+            }
+            lastCount = count;
+            lastTotalSeconds = totalSeconds;
+            return meanServiceSeconds;
+        }
+
+        private void update(long lag, double arrivalRate, int partitions, int instances, Double serviceSeconds) {
+            this.lag = lag;
+            this.arrivalRate = arrivalRate;
+            this.partitions = partitions;
+            if (serviceSeconds == null) {
+                // No listener timings yet: nothing to base a recommendation on
+                return;
+            }
+            double drainSeconds = Math.max(1, properties.getDrainTarget().toSeconds());
+            double demand = arrivalRate + lag / drainSeconds;
+            double threads = demand * serviceSeconds / properties.getTargetUtilization();
+            int perInstance = (int) Math.ceil(threads / instances);
+            recommended = Math.max(1, Math.min(perInstance, Math.max(1, partitions)));
+        }
+
+        private boolean agrees(int target, int current, int stableIntervals) {
+            if (target == current) {
+                streak = 0;
+                return false;
+            }
+            streak = target == candidate ? streak + 1 : 1;
+            candidate = target;
+            if (streak < stableIntervals) {
+                return false;
+            }
+            streak = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Recent (time, log end offset) samples of one partition.
+     */
+    private static final class EndOffsetHistory {
+
+        private final int capacity;
+        private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+
+        private EndOffsetHistory(int capacity) {
+            this.capacity = Math.max(2, capacity);
+        }
+
+        private void add(long timeMillis, long offset) {
+            if (samples.size() == capacity) {
+                samples.removeFirst();
+            }
+            samples.addLast(new long[]{timeMillis, offset});
+        }
+
+        private long latestOffset() {
+            return samples.getLast()[1];
+        }
+
+        private double ratePerSecond() {
+            if (samples.size() < 2) {
+                return 0;
+            }
+            long[] first = null;
+            int skip = Math.max(0, samples.size() - RATE_SAMPLES);
+            for (long[] sample : samples) {
+                if (skip-- == 0) {
+                    first = sample;
+                    break;
+                }
+            }
+            long[] last = samples.getLast();
+            long millis = last[0] - first[0];
+            return millis <= 0 ? 0 : (last[1] - first[1]) * 1000.0 / millis;
+        }
+
+        /**
+         * Time since the log end passed {@code committed}; a lower bound when that is older than the history.
+         */
+        private long lagMillis(long committed, long now) {
+            if (committed >= latestOffset()) {
+                return 0;
+            }
+            long[] after = null;
+            for (var it = samples.descendingIterator(); it.hasNext(); ) {
+                long[] sample = it.next();
+                if (sample[1] <= committed) {
+                    if (after == null) {
+                        return 0;
+                    }
+                    double fraction = (double) (committed - sample[1]) / (after[1] - sample[1]);
+                    return now - (sample[0] + (long) (fraction * (after[0] - sample[0])));
+                }
+                after = sample;
+            }
+            return now - samples.getFirst()[0];
+        }
+    }
+}
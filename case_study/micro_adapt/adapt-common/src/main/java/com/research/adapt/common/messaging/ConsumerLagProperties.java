@@ -0,0 +1,111 @@
+package com.research.adapt.common.messaging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Consumer lag monitoring and the concurrency recommendation derived from it, from adapt.kafka.lag.
+ */
+@ConfigurationProperties(prefix = "adapt.kafka.lag")
+public class ConsumerLagProperties {
+
+    private boolean enabled = true;
+    private Duration interval = Duration.ofSeconds(10);
+    // Backlog should be worked off within this time, on top of keeping up with new events
+    private Duration drainTarget = Duration.ofSeconds(60);
+    // Busy fraction a listener thread is sized for; headroom absorbs bursts without lag building up
+    private double targetUtilization = 0.7;
+    // Log end offset samples kept per partition to convert lag in records into lag in time
+    private int history = 60;
+    private final Autoscale autoscale = new Autoscale();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getDrainTarget() {
+        return drainTarget;
+    }
+
+    public void setDrainTarget(Duration drainTarget) {
+        this.drainTarget = drainTarget;
+    }
+
+    public double getTargetUtilization() {
+        return targetUtilization;
+    }
+
+    public void setTargetUtilization(double targetUtilization) {
+        this.targetUtilization = targetUtilization;
+    }
+
+    public int getHistory() {
+        return history;
+    }
+
+    public void setHistory(int history) {
+        this.history = history;
+    }
+
+    public Autoscale getAutoscale() {
+        return autoscale;
+    }
+
+    /**
+     * Applies the recommendation to the listener containers; off by default, the signal is only published.
+     */
+    public static class Autoscale {
+
+        private boolean enabled = false;
+        private int minConcurrency = 1;
+        // 0 means the partition count of the container's topics
+        private int maxConcurrency = 0;
+        // Consecutive evaluations that must agree before a container is restarted with a new concurrency
+        private int stableIntervals = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getStableIntervals() {
+            return stableIntervals;
+        }
+
+        public void setStableIntervals(int stableIntervals) {
+            this.stableIntervals = stableIntervals;
+        }
+    }
+}
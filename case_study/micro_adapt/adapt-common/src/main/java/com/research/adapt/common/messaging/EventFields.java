@@ -0,0 +1,40 @@
+package com.research.adapt.common.messaging;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Reads the fields every ADAPT event schema carries (orderId, timestamp in epoch millis)
+ * without depending on the generated classes of a particular service.
+ */
+public final class EventFields {
+
+    private EventFields() {
+    }
+
+    /**
+     * Time the event was created by its producer; falls back to the Kafka record timestamp
+     * for payloads without a timestamp field.
+     */
+    public static long timestamp(ConsumerRecord<?, ?> record) {
+        Object value = field(record.value(), "timestamp");
+        return value instanceof Long millis ? millis : record.timestamp();
+    }
+
+    /**
+     * Order the event belongs to, or null when the payload has no orderId.
+     */
+    public static Long orderId(Object payload) {
+        Object value = field(payload, "orderId");
+        return value instanceof Long id ? id : null;
+    }
+
+    private static Object field(Object payload, String name) {
+        if (payload instanceof GenericRecord record) {
+            Schema.Field field = record.getSchema().getField(name);
+            return field != null ? record.get(field.pos()) : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.research.adapt.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.avro.generic.GenericRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Instruments every Kafka listener of a service with {@link EventLatencyInterceptor}.
+ * Services define their own listener container factories, so the interceptor is attached to each
+ * factory bean as it is created rather than through Boot's auto-configured factory.
+ * Turn off with adapt.metrics.kafka.enabled=false.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({RecordInterceptor.class, MeterRegistry.class, GenericRecord.class})
+@ConditionalOnProperty(name = "adapt.metrics.kafka.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SagaLatencyProperties.class)
+public class EventLatencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(name = "adapt.metrics.saga.enabled", havingValue = "true")
+    public SagaLatencyTracker sagaLatencyTracker(SagaLatencyProperties properties, MeterRegistry meterRegistry) {
+        return new SagaLatencyTracker(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public EventLatencyInterceptor eventLatencyInterceptor(MeterRegistry meterRegistry,
+                                                           ObjectProvider<SagaLatencyTracker> sagaLatencyTracker) {
+        return new EventLatencyInterceptor(meterRegistry, sagaLatencyTracker.getIfAvailable());
+    }
+
+    @Bean
+    public static BeanPostProcessor eventLatencyListenerInstrumentation(ObjectProvider<EventLatencyInterceptor> interceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings({"rawtypes", "unchecked"})
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory factory) {
+                    interceptor.ifAvailable(factory::setRecordInterceptor);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.research.adapt.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per topic and consumer group, how old an event is when a listener picks it up
+ * (adapt.kafka.event.age: consume time minus the event's own timestamp, so it includes producer
+ * batching, broker time and consumer lag) and how long the listener takes (adapt.kafka.listener.processing).
+ * Also hands every event to the {@link SagaLatencyTracker}, when the service has one.
+ * Installed on every listener container factory by {@link EventLatencyAutoConfiguration}.
+ */
+public class EventLatencyInterceptor implements RecordInterceptor<Object, Object> {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+
+    private final MeterRegistry meterRegistry;
+    private final SagaLatencyTracker sagaLatencyTracker;
+    private final Map<String, Timer> eventAge = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processing = new ConcurrentHashMap<>();
+    // Listener invocation happens on the consumer thread that called intercept
+    private final ThreadLocal<long[]> startedAt = ThreadLocal.withInitial(() -> new long[1]);
+
+    public EventLatencyInterceptor(MeterRegistry meterRegistry, SagaLatencyTracker sagaLatencyTracker) {
+        this.meterRegistry = meterRegistry;
+        this.sagaLatencyTracker = sagaLatencyTracker;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        long eventTimestamp = EventFields.timestamp(record);
+        long ageMillis = Math.max(0, System.currentTimeMillis() - eventTimestamp);
+        eventAge.computeIfAbsent(key(record, consumer), k -> eventAgeTimer(record.topic(), groupId(consumer)))
+                .record(ageMillis, TimeUnit.MILLISECONDS);
+        if (sagaLatencyTracker != null) {
+            Long orderId = EventFields.orderId(record.value());
+            if (orderId != null) {
+                sagaLatencyTracker.observe(record.topic(), orderId, eventTimestamp);
+            }
+        }
+        startedAt.get()[0] = System.nanoTime();
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        recordProcessing(record, consumer, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception, Consumer<Object, Object> consumer) {
+        recordProcessing(record, consumer, "failure");
+    }
+
+    private void recordProcessing(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer, String outcome) {
+        long elapsed = System.nanoTime() - startedAt.get()[0];
+        processing.computeIfAbsent(key(record, consumer) + '\u0000' + outcome,
+                        k -> processingTimer(record.topic(), groupId(consumer), outcome))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer eventAgeTimer(String topic, String group) {
+        return Timer.builder("adapt.kafka.event.age")
+                .description("Time from event creation to the start of its processing by a listener")
+                .tags("topic", topic, "group", group)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private Timer processingTimer(String topic, String group, String outcome) {
+        return Timer.builder("adapt.kafka.listener.processing")
+                .description("Time a listener spent processing one event")
+                .tags("topic", topic, "group", group, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private static String key(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        return record.topic() + '\u0000' + groupId(consumer);
+    }
+
+    private static String groupId(Consumer<?, ?> consumer) {
+        return consumer.groupMetadata().groupId();
+    }
+}
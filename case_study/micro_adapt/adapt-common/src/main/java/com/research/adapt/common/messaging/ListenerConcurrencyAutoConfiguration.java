@@ -0,0 +1,21 @@
+package com.research.adapt.common.messaging;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+/**
+ * Provides the {@link ListenerConcurrencyCoordinator} that the lag autoscaler and runtime tuning share.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ConcurrentMessageListenerContainer.class)
+public class ListenerConcurrencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ListenerConcurrencyCoordinator listenerConcurrencyCoordinator() {
+        return new ListenerConcurrencyCoordinator();
+    }
+}
@@ -0,0 +1,65 @@
+package com.research.adapt.common.messaging;
+
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The one place listener containers are restarted with new settings, shared by the lag autoscaler
+ * ({@link ConsumerLagMonitor}) and runtime tuning (RuntimeTuningApplier).
+ * <p>
+ * A container goes through one restart at a time: changes requested while it is stopping are queued and applied
+ * together before it starts again, so one caller never starts a container the other is reconfiguring, and
+ * {@link #concurrency} already reports the value a pending restart will start with.
+ */
+public class ListenerConcurrencyCoordinator {
+
+    private final Map<String, List<Consumer<ConcurrentMessageListenerContainer<?, ?>>>> pendingChanges = new HashMap<>();
+    private final Map<String, Integer> pendingConcurrency = new HashMap<>();
+
+    /**
+     * Concurrency the container runs with, or will run with once a pending restart completes.
+     */
+    public synchronized int concurrency(ConcurrentMessageListenerContainer<?, ?> container) {
+        return pendingConcurrency.getOrDefault(container.getListenerId(), container.getConcurrency());
+    }
+
+    /**
+     * Stops the container, applies {@code change} and {@code concurrency} (unless null) and starts it again.
+     * A container that is not running is changed in place; one that is already restarting picks the change up
+     * in the same restart.
+     */
+    public synchronized void reconfigure(ConcurrentMessageListenerContainer<?, ?> container, Integer concurrency,
+                                         Consumer<ConcurrentMessageListenerContainer<?, ?>> change) {
+        Consumer<ConcurrentMessageListenerContainer<?, ?>> apply = concurrency == null
+                ? change : change.andThen(c -> c.setConcurrency(concurrency));
+        String id = container.getListenerId();
+        List<Consumer<ConcurrentMessageListenerContainer<?, ?>>> pending = pendingChanges.get(id);
+        if (pending == null && !container.isRunning()) {
+            apply.accept(container);
+            return;
+        }
+        if (concurrency != null) {
+            pendingConcurrency.put(id, concurrency);
+        }
+        if (pending != null) {
+            pending.add(apply);
+            return;
+        }
+        pending = new ArrayList<>();
+        pending.add(apply);
+        pendingChanges.put(id, pending);
+        container.stop(() -> restart(container));
+    }
+
+    private synchronized void restart(ConcurrentMessageListenerContainer<?, ?> container) {
+        String id = container.getListenerId();
+        pendingConcurrency.remove(id);
+        pendingChanges.remove(id).forEach(change -> change.accept(container));
+        container.start();
+    }
+}
@@ -0,0 +1,71 @@
+package com.research.adapt.common.messaging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hops of the order saga, measured by {@link SagaLatencyTracker}, from adapt.metrics.saga.
+ * A hop runs from the event on {@code from} to the first of the {@code to} topics, e.g.
+ * <pre>
+ * adapt.metrics.saga.hops.payment.from: inventory.reserved.v1
+ * adapt.metrics.saga.hops.payment.to: payment.completed.v1, payment.failed.v1
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "adapt.metrics.saga")
+public class SagaLatencyProperties {
+
+    private boolean enabled = false;
+    // Orders whose events are kept for stitching; the oldest are dropped beyond this
+    private int maxOrders = 10_000;
+    private Map<String, Hop> hops = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxOrders() {
+        return maxOrders;
+    }
+
+    public void setMaxOrders(int maxOrders) {
+        this.maxOrders = maxOrders;
+    }
+
+    public Map<String, Hop> getHops() {
+        return hops;
+    }
+
+    public void setHops(Map<String, Hop> hops) {
+        this.hops = hops;
+    }
+
+    public static class Hop {
+
+        private String from;
+        private List<String> to = new ArrayList<>();
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+
+        public List<String> getTo() {
+            return to;
+        }
+
+        public void setTo(List<String> to) {
+            this.to = to;
+        }
+    }
+}
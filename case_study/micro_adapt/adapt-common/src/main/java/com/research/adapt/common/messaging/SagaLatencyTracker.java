@@ -0,0 +1,121 @@
+package com.research.adapt.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stitches the events of one order into per-hop saga latencies (adapt.saga.latency, tagged with the hop
+ * and the topic that ended it), using the timestamps the producing services put into each event.
+ * A hop is recorded once per order, as soon as both ends have been seen, in whichever order they arrive.
+ * Only meaningful in a service that consumes every topic of the hops, and only as exact as the clocks of
+ * the producing services agree. Per-order state is bounded by adapt.metrics.saga.max-orders.
+ */
+public class SagaLatencyTracker {
+
+    private final int maxOrders;
+    private final List<HopSpec> hops = new ArrayList<>();
+    private final Map<String, Integer> topicIndex = new HashMap<>();
+    private final Map<String, List<HopSpec>> hopsByTopic = new HashMap<>();
+    private final Map<Long, OrderEvents> orders;
+
+    public SagaLatencyTracker(SagaLatencyProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getHops().size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " saga hops can be tracked");
+        }
+        this.maxOrders = properties.getMaxOrders();
+        properties.getHops().forEach((name, hop) -> {
+            HopSpec spec = new HopSpec(hops.size(), index(hop.getFrom()));
+            for (String to : hop.getTo()) {
+                spec.to.add(index(to));
+                spec.timers.add(Timer.builder("adapt.saga.latency")
+                        .description("Time between the events that start and end a saga hop")
+                        .tags("hop", name, "to", to)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofMinutes(5))
+                        .register(meterRegistry));
+                hopsByTopic.computeIfAbsent(to, t -> new ArrayList<>()).add(spec);
+            }
+            hopsByTopic.computeIfAbsent(hop.getFrom(), t -> new ArrayList<>()).add(spec);
+            hops.add(spec);
+        });
+        this.orders = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, OrderEvents> eldest) {
+                return size() > maxOrders;
+            }
+        };
+    }
+
+    public void observe(String topic, long orderId, long timestamp) {
+        List<HopSpec> affected = hopsByTopic.get(topic);
+        if (affected == null) {
+            return;
+        }
+        int topicSlot = topicIndex.get(topic);
+        synchronized (orders) {
+            OrderEvents events = orders.computeIfAbsent(orderId, id -> new OrderEvents(topicIndex.size()));
+            // Keep the latest occurrence: e.g. only the last notification of an order follows its invoice
+            events.timestamps[topicSlot] = Math.max(events.timestamps[topicSlot], timestamp);
+            for (HopSpec hop : affected) {
+                if ((events.recorded & (1L << hop.bit)) == 0 && hop.tryRecord(events.timestamps)) {
+                    events.recorded |= 1L << hop.bit;
+                }
+            }
+        }
+    }
+
+    private int index(String topic) {
+        return topicIndex.computeIfAbsent(topic, t -> topicIndex.size());
+    }
+
+    private static final class HopSpec {
+
+        private final int bit;
+        private final int from;
+        private final List<Integer> to = new ArrayList<>();
+        private final List<Timer> timers = new ArrayList<>();
+
+        private HopSpec(int bit, int from) {
+            this.bit = bit;
+            this.from = from;
+        }
+
+        private boolean tryRecord(long[] timestamps) {
+            long start = timestamps[from];
+            if (start == 0) {
+                return false;
+            }
+            int first = -1;
+            for (int i = 0; i < to.size(); i++) {
+                long end = timestamps[to.get(i)];
+                if (end != 0 && end >= start && (first < 0 || end < timestamps[to.get(first)])) {
+                    first = i;
+                }
+            }
+            if (first < 0) {
+                return false;
+            }
+            timers.get(first).record(timestamps[to.get(first)] - start, TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+
+    private static final class OrderEvents {
+
+        private final long[] timestamps;
+        private long recorded;
+
+        private OrderEvents(int topics) {
+            this.timestamps = new long[topics];
+        }
+    }
+}
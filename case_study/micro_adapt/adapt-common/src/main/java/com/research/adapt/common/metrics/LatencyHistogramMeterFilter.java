@@ -0,0 +1,73 @@
+package com.research.adapt.common.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Gives the configured latency timers (HTTP server, gateway routes, Kafka consume and produce, repository calls)
+ * the same percentile histogram buckets in every service, so histogram_quantile over summed buckets is accurate
+ * across instances and services. Each timer also gets bucket boundaries at the latency targets and the SLO thresholds,
+ * so the good-event count of an objective is exact rather than interpolated.
+ * Settings a timer was built with (such as its own expected range) are kept; the layout only fills what is unset.
+ */
+public class LatencyHistogramMeterFilter implements MeterFilter {
+
+    private final List<String> meters;
+    private final DistributionStatisticConfig layout;
+    private final double[] boundaries;
+
+    public LatencyHistogramMeterFilter(LatencyHistogramProperties properties, SloProperties sloProperties) {
+        this.meters = List.copyOf(properties.getMeters());
+        TreeSet<Double> slo = new TreeSet<>();
+        properties.getSlo().forEach(boundary -> slo.add((double) boundary.toNanos()));
+        sloProperties.getObjectives().values()
+                .forEach(objective -> slo.add((double) objective.getThreshold().toNanos()));
+        this.boundaries = slo.stream().mapToDouble(Double::doubleValue).toArray();
+        DistributionStatisticConfig.Builder layout = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) properties.getMinimumExpectedValue().toNanos())
+                .maximumExpectedValue((double) properties.getMaximumExpectedValue().toNanos());
+        if (!properties.getPercentiles().isEmpty()) {
+            layout.percentiles(properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray());
+        }
+        this.layout = layout.build();
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (id.getType() != Meter.Type.TIMER || !matches(id.getName())) {
+            return config;
+        }
+        return DistributionStatisticConfig.builder()
+                .serviceLevelObjectives(union(config.getServiceLevelObjectiveBoundaries(), boundaries))
+                .build()
+                .merge(config.merge(layout));
+    }
+
+    private boolean matches(String name) {
+        for (String prefix : meters) {
+            if (name.equals(prefix) || name.startsWith(prefix + '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] union(double[] existing, double[] added) {
+        if (existing == null || existing.length == 0) {
+            return added;
+        }
+        TreeSet<Double> all = new TreeSet<>();
+        for (double boundary : existing) {
+            all.add(boundary);
+        }
+        for (double boundary : added) {
+            all.add(boundary);
+        }
+        return all.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
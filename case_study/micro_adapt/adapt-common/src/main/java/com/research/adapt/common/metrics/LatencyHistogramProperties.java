@@ -0,0 +1,83 @@
+package com.research.adapt.common.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One histogram layout for every latency timer on a request or event path ({@link LatencyHistogramMeterFilter}),
+ * from adapt.metrics.latency.
+ */
+@ConfigurationProperties(prefix = "adapt.metrics.latency")
+public class LatencyHistogramProperties {
+
+    private boolean enabled = true;
+    // Timers the layout applies to, by name prefix
+    private List<String> meters = new ArrayList<>(List.of(
+            "http.server.requests",
+            "spring.cloud.gateway.requests",
+            "spring.kafka.listener",
+            "spring.kafka.template",
+            "adapt.kafka.listener.processing",
+            "adapt.kafka.event.age",
+            "spring.data.repository.invocations"));
+    // Range of the percentile histogram buckets; the same range everywhere gives the same buckets everywhere
+    private Duration minimumExpectedValue = Duration.ofMillis(1);
+    private Duration maximumExpectedValue = Duration.ofSeconds(30);
+    // Extra bucket boundaries at the latency targets; the thresholds of adapt.slo objectives are added to these
+    private List<Duration> slo = new ArrayList<>(List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(2)));
+    // Client-side percentiles per instance (e.g. 0.5, 0.99); these cannot be aggregated, so none by default
+    private List<Double> percentiles = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getMeters() {
+        return meters;
+    }
+
+    public void setMeters(List<String> meters) {
+        this.meters = meters;
+    }
+
+    public Duration getMinimumExpectedValue() {
+        return minimumExpectedValue;
+    }
+
+    public void setMinimumExpectedValue(Duration minimumExpectedValue) {
+        this.minimumExpectedValue = minimumExpectedValue;
+    }
+
+    public Duration getMaximumExpectedValue() {
+        return maximumExpectedValue;
+    }
+
+    public void setMaximumExpectedValue(Duration maximumExpectedValue) {
+        this.maximumExpectedValue = maximumExpectedValue;
+    }
+
+    public List<Duration> getSlo() {
+        return slo;
+    }
+
+    public void setSlo(List<Duration> slo) {
+        this.slo = slo;
+    }
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+}
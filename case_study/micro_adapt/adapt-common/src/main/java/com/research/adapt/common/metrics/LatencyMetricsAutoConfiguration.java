@@ -0,0 +1,34 @@
+package com.research.adapt.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Shared latency histogram layout and SLO burn rate for every service and the gateway.
+ * Turn off with adapt.metrics.latency.enabled=false and adapt.slo.enabled=false.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@EnableConfigurationProperties({LatencyHistogramProperties.class, SloProperties.class})
+public class LatencyMetricsAutoConfiguration {
+
+    // Applied by Boot to the meter registry when it is created, before any meter is registered
+    @Bean
+    @ConditionalOnProperty(name = "adapt.metrics.latency.enabled", havingValue = "true", matchIfMissing = true)
+    public LatencyHistogramMeterFilter latencyHistogramMeterFilter(LatencyHistogramProperties properties,
+                                                                   SloProperties sloProperties) {
+        return new LatencyHistogramMeterFilter(properties, sloProperties);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(name = "adapt.slo.enabled", havingValue = "true", matchIfMissing = true)
+    public SloBurnRateMonitor sloBurnRateMonitor(SloProperties properties, MeterRegistry meterRegistry) {
+        return new SloBurnRateMonitor(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,210 @@
+package com.research.adapt.common.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how fast each latency objective of the service burns its error budget: adapt.slo.burn.rate{slo, window}
+ * is the fraction of bad events in the window (slower than the threshold, or an error) divided by the fraction the
+ * objective allows. 1 spends the budget exactly over the SLO period; 14.4 over 1h spends 2% of a 30-day budget.
+ * <p>
+ * Good and total counts come from the timers' histograms (the threshold is a bucket boundary, see
+ * {@link LatencyHistogramMeterFilter}), which the Prometheus registry keeps cumulative since startup,
+ * sampled every adapt.slo.interval; a window shorter than the uptime
+ * uses what has been sampled so far. Also published: adapt.slo.objective and adapt.slo.threshold, for dashboards.
+ */
+public class SloBurnRateMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SloBurnRateMonitor.class);
+
+    private final SloProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Tracked> tracked = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public SloBurnRateMonitor(SloProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        long longest = properties.getWindows().stream().mapToLong(Duration::toMillis).max().orElse(0);
+        int capacity = (int) (longest / properties.getInterval().toMillis()) + 2;
+        properties.getObjectives().forEach((name, objective) -> {
+            if (objective.isEnabled() && objective.getMeter() != null) {
+                tracked.add(new Tracked(name, objective, capacity));
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "slo-burn-rate");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::sampleSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sampleSafely() {
+        try {
+            long now = System.nanoTime();
+            for (Tracked objective : tracked) {
+                objective.sample(now);
+            }
+        } catch (Exception e) {
+            log.warn("SLO burn rate sampling failed: {}", e.toString());
+        }
+    }
+
+    private final class Tracked {
+
+        private final String name;
+        private final SloProperties.Objective objective;
+        private final double thresholdNanos;
+        private final int capacity;
+        private final ArrayDeque<Sample> samples = new ArrayDeque<>();
+        private boolean registered;
+        private boolean missingBucketReported;
+
+        private Tracked(String name, SloProperties.Objective objective, int capacity) {
+            this.name = name;
+            this.objective = objective;
+            this.thresholdNanos = objective.getThreshold().toNanos();
+            this.capacity = capacity;
+        }
+
+        private synchronized void sample(long now) {
+            long total = 0;
+            long good = 0;
+            for (Timer timer : meterRegistry.find(objective.getMeter()).timers()) {
+                if (excluded(timer)) {
+                    continue;
+                }
+                total += timer.count();
+                if (!error(timer)) {
+                    good += countWithinThreshold(timer);
+                }
+            }
+            samples.addLast(new Sample(now, total, good));
+            while (samples.size() > capacity) {
+                samples.removeFirst();
+            }
+            // Objectives of paths the service does not have (no listener, no HTTP) stay unpublished
+            if (!registered && total > 0) {
+                register();
+            }
+        }
+
+        private void register() {
+            registered = true;
+            for (Duration window : properties.getWindows()) {
+                Gauge.builder("adapt.slo.burn.rate", this, tracked -> tracked.burnRate(window))
+                        .description("Error budget burn rate: bad event ratio over the window divided by the allowed ratio")
+                        .tags("slo", name, "window", format(window))
+                        .register(meterRegistry);
+            }
+            Gauge.builder("adapt.slo.objective", objective, SloProperties.Objective::getObjective)
+                    .description("Fraction of events that must be good")
+                    .tag("slo", name)
+                    .register(meterRegistry);
+            Gauge.builder("adapt.slo.threshold", objective, o -> o.getThreshold().toNanos() / 1e9)
+                    .description("Latency an event must stay within to be good")
+                    .tag("slo", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        private synchronized double burnRate(Duration window) {
+            if (samples.size() < 2) {
+                return 0;
+            }
+            Sample latest = samples.getLast();
+            long since = latest.at - window.toNanos();
+            Sample start = samples.getFirst();
+            for (Sample sample : samples) {
+                if (sample.at - since >= 0) {
+                    break;
+                }
+                start = sample;
+            }
+            long total = latest.total - start.total;
+            long bad = total - (latest.good - start.good);
+            if (total <= 0) {
+                return 0;
+            }
+            return ((double) bad / total) / (1 - objective.getObjective());
+        }
+
+        private boolean excluded(Timer timer) {
+            for (Map.Entry<String, String> exclude : objective.getExclude().entrySet()) {
+                String value = timer.getId().getTag(exclude.getKey());
+                if (value != null && value.startsWith(exclude.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean error(Timer timer) {
+            if (objective.getErrorTag() == null) {
+                return false;
+            }
+            return objective.getErrorValues().contains(timer.getId().getTag(objective.getErrorTag()));
+        }
+
+        private long countWithinThreshold(Timer timer) {
+            CountAtBucket within = null;
+            for (CountAtBucket bucket : timer.takeSnapshot().histogramCounts()) {
+                if (bucket.bucket() > thresholdNanos) {
+                    break;
+                }
+                within = bucket;
+            }
+            if (within == null || within.bucket() != thresholdNanos) {
+                if (!missingBucketReported) {
+                    missingBucketReported = true;
+                    log.warn("Timer {} has no bucket at {}; objective {} counts up to the next lower bucket",
+                            objective.getMeter(), objective.getThreshold(), name);
+                }
+            }
+            return within == null ? 0 : (long) within.count();
+        }
+    }
+
+    private static String format(Duration window) {
+        if (window.toHours() > 0 && window.toMinutes() % 60 == 0) {
+            return window.toHours() + "h";
+        }
+        return window.toMinutes() > 0 && window.getSeconds() % 60 == 0 ? window.toMinutes() + "m" : window.getSeconds() + "s";
+    }
+
+    private record Sample(long at, long total, long good) {
+    }
+}
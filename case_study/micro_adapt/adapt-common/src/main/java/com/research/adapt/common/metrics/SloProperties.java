@@ -0,0 +1,146 @@
+package com.research.adapt.common.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency objectives whose error budget burn {@link SloBurnRateMonitor} publishes, from adapt.slo.
+ * Every service gets the http and kafka objectives; a service adds or overrides entries under adapt.slo.objectives.
+ */
+@ConfigurationProperties(prefix = "adapt.slo")
+public class SloProperties {
+
+    private boolean enabled = true;
+    // How often the good and total counts are sampled
+    private Duration interval = Duration.ofSeconds(15);
+    // Burn rate is published over each window: short to page on, long to confirm
+    private List<Duration> windows = new ArrayList<>(List.of(Duration.ofMinutes(5), Duration.ofHours(1)));
+    private Map<String, Objective> objectives = new LinkedHashMap<>();
+
+    public SloProperties() {
+        Objective http = new Objective();
+        http.setMeter("http.server.requests");
+        http.setThreshold(Duration.ofMillis(500));
+        http.setErrorTag("outcome");
+        http.setErrorValues(new ArrayList<>(List.of("SERVER_ERROR")));
+        http.getExclude().put("uri", "/actuator");
+        objectives.put("http", http);
+
+        Objective kafka = new Objective();
+        kafka.setMeter("adapt.kafka.listener.processing");
+        kafka.setThreshold(Duration.ofSeconds(1));
+        kafka.setErrorTag("outcome");
+        kafka.setErrorValues(new ArrayList<>(List.of("failure")));
+        objectives.put("kafka", kafka);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public List<Duration> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<Duration> windows) {
+        this.windows = windows;
+    }
+
+    public Map<String, Objective> getObjectives() {
+        return objectives;
+    }
+
+    public void setObjectives(Map<String, Objective> objectives) {
+        this.objectives = objectives;
+    }
+
+    /**
+     * An event is good when it took at most the threshold and its error tag is not one of the error values.
+     */
+    public static class Objective {
+
+        private boolean enabled = true;
+        // Timer name; every timer of that name counts, whatever its tags
+        private String meter;
+        private Duration threshold = Duration.ofMillis(500);
+        // Fraction of events that must be good, e.g. 0.99
+        private double objective = 0.99;
+        private String errorTag;
+        private List<String> errorValues = new ArrayList<>();
+        // Timers whose tag value starts with the given prefix are left out, e.g. uri: /actuator
+        private Map<String, String> exclude = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getMeter() {
+            return meter;
+        }
+
+        public void setMeter(String meter) {
+            this.meter = meter;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public double getObjective() {
+            return objective;
+        }
+
+        public void setObjective(double objective) {
+            this.objective = objective;
+        }
+
+        public String getErrorTag() {
+            return errorTag;
+        }
+
+        public void setErrorTag(String errorTag) {
+            this.errorTag = errorTag;
+        }
+
+        public List<String> getErrorValues() {
+            return errorValues;
+        }
+
+        public void setErrorValues(List<String> errorValues) {
+            this.errorValues = errorValues;
+        }
+
+        public Map<String, String> getExclude() {
+            return exclude;
+        }
+
+        public void setExclude(Map<String, String> exclude) {
+            this.exclude = exclude;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.research.adapt.common.persistence;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts statement and batch executions into {@link JdbcRoundTrips}.
+ * Registered for every session through hibernate.session.events.auto in adapt-persistence.yml.
+ */
+public class JdbcRoundTripListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        JdbcRoundTrips.increment();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        JdbcRoundTrips.increment();
+    }
+}
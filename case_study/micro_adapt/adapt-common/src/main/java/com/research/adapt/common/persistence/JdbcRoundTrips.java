@@ -0,0 +1,23 @@
+package com.research.adapt.common.persistence;
+
+/**
+ * Per-thread count of JDBC round trips (single statement executions plus batch executions)
+ * made by Hibernate, maintained by {@link JdbcRoundTripListener}.
+ * Take a snapshot before a unit of work and subtract it afterwards; the unit of work
+ * must flush before the second read for the count to include its writes.
+ */
+public final class JdbcRoundTrips {
+
+    private static final ThreadLocal<long[]> COUNTER = ThreadLocal.withInitial(() -> new long[1]);
+
+    private JdbcRoundTrips() {
+    }
+
+    public static long current() {
+        return COUNTER.get()[0];
+    }
+
+    static void increment() {
+        COUNTER.get()[0]++;
+    }
+}
@@ -0,0 +1,31 @@
+package com.research.adapt.common.profiling;
+
+import jdk.jfr.FlightRecorder;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the {@link FlightRecorderService} and, when exposed, the /actuator/jfr endpoint.
+ * Turn off with adapt.profiling.enabled=false.
+ */
+@AutoConfiguration
+@ConditionalOnClass({FlightRecorder.class, ConditionalOnAvailableEndpoint.class})
+@ConditionalOnProperty(name = "adapt.profiling.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+public class FlightRecorderAutoConfiguration {
+
+    @Bean
+    public FlightRecorderService flightRecorderService(FlightRecorderProperties properties) {
+        return new FlightRecorderService(properties);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = FlightRecorderEndpoint.class)
+    public FlightRecorderEndpoint flightRecorderEndpoint(FlightRecorderService flightRecorderService) {
+        return new FlightRecorderEndpoint(flightRecorderService);
+    }
+}
@@ -0,0 +1,75 @@
+package com.research.adapt.common.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * /actuator/jfr:
+ * <ul>
+ * <li>GET: available, continuous and on-demand recordings</li>
+ * <li>POST {"profile": "cpu", "duration": "60s"}: start a recording; profiles default, profile, cpu, allocation,
+ * locks</li>
+ * <li>GET /{id}: the .jfr file, a snapshot while still running; id "continuous" dumps the rolling recording</li>
+ * <li>GET /{id}/summary: hot methods, allocation sites and lock contention in the recording</li>
+ * <li>DELETE /{id}: stop a running recording early</li>
+ * </ul>
+ */
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService recorder;
+
+    public FlightRecorderEndpoint(FlightRecorderService recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public FlightRecorderService.Status status() {
+        return recorder.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable String profile, @Nullable Duration duration) {
+        return respond(() -> recorder.startRecording(profile, duration));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> stop(@Selector String id) {
+        return respond(() -> recorder.stopRecording(id));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Object> recording(@Selector String id) {
+        return respond(() -> new FileSystemResource(recorder.recordingFile(id)));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> summary(@Selector String id, @Selector String view) {
+        if (!"summary".equals(view)) {
+            return new WebEndpointResponse<>("Unknown view " + view, WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return respond(() -> recorder.summarize(id));
+    }
+
+    private static WebEndpointResponse<Object> respond(Supplier<Object> operation) {
+        try {
+            return new WebEndpointResponse<>(operation.get());
+        } catch (NoSuchElementException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(e.getMessage(), 409);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.research.adapt.common.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * On-demand and continuous JDK Flight Recorder sessions ({@link FlightRecorderService}), from adapt.profiling.
+ */
+@ConfigurationProperties(prefix = "adapt.profiling")
+public class FlightRecorderProperties {
+
+    private boolean enabled = true;
+    // Where recordings are written; defaults to a directory under java.io.tmpdir
+    private Path directory;
+    // Used when a start request names no duration
+    private Duration defaultDuration = Duration.ofSeconds(60);
+    // Upper bound for a requested duration, so a forgotten session cannot run for days
+    private Duration maxDuration = Duration.ofMinutes(10);
+    // Finished on-demand recordings kept for download; the oldest file is deleted beyond this
+    private int retainedRecordings = 5;
+    // Entries per table in a recording summary
+    private int summaryTop = 10;
+    private final Continuous continuous = new Continuous();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public Duration getDefaultDuration() {
+        return defaultDuration;
+    }
+
+    public void setDefaultDuration(Duration defaultDuration) {
+        this.defaultDuration = defaultDuration;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public int getRetainedRecordings() {
+        return retainedRecordings;
+    }
+
+    public void setRetainedRecordings(int retainedRecordings) {
+        this.retainedRecordings = retainedRecordings;
+    }
+
+    public int getSummaryTop() {
+        return summaryTop;
+    }
+
+    public void setSummaryTop(int summaryTop) {
+        this.summaryTop = summaryTop;
+    }
+
+    public Continuous getContinuous() {
+        return continuous;
+    }
+
+    /**
+     * A rolling recording running for the life of the service, with the low-overhead default settings
+     * plus allocation and lock sampling. Dumped on request, so the minutes before an incident can be looked at.
+     */
+    public static class Continuous {
+
+        private boolean enabled = false;
+        private String profile = "continuous";
+        private Duration maxAge = Duration.ofMinutes(30);
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getProfile() {
+            return profile;
+        }
+
+        public void setProfile(String profile) {
+            this.profile = profile;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+}
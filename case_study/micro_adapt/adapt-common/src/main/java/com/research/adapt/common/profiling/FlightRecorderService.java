@@ -0,0 +1,240 @@
+package com.research.adapt.common.profiling;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Starts, stops and dumps JDK Flight Recorder sessions inside the running service, so CPU, allocation and lock
+ * profiles can be taken without a restart with -XX:StartFlightRecording. One on-demand session runs at a time;
+ * finished recordings are kept on disk (adapt.profiling.retained-recordings) until downloaded or pruned.
+ * With adapt.profiling.continuous.enabled a rolling recording runs from startup and can be dumped at any time.
+ */
+public class FlightRecorderService implements SmartLifecycle {
+
+    public static final String CONTINUOUS = "continuous";
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private final FlightRecorderProperties properties;
+    private final Path directory;
+    private final Map<Long, Session> sessions = new LinkedHashMap<>();
+    private final Map<String, Path> snapshots = new HashMap<>();
+    private Recording continuous;
+    private volatile boolean running;
+
+    public FlightRecorderService(FlightRecorderProperties properties) {
+        this.properties = properties;
+        this.directory = properties.getDirectory() != null ? properties.getDirectory()
+                : Path.of(System.getProperty("java.io.tmpdir"), "adapt-jfr");
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the recording directory " + directory, e);
+        }
+        FlightRecorderProperties.Continuous settings = properties.getContinuous();
+        if (settings.isEnabled() && FlightRecorder.isAvailable()) {
+            continuous = new Recording(RecordingProfile.of(settings.getProfile()).settings());
+            continuous.setName("adapt-" + CONTINUOUS);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(settings.getMaxAge());
+            continuous.setMaxSize(settings.getMaxSize().toBytes());
+            continuous.start();
+            log.info("Continuous flight recording started (profile {}, last {} kept)", settings.getProfile(), settings.getMaxAge());
+        }
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (continuous != null) {
+            continuous.close();
+            continuous = null;
+        }
+        sessions.values().forEach(session -> session.recording.close());
+        sessions.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public synchronized RecordingInfo startRecording(String profileName, Duration requested) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available in this JVM");
+        }
+        for (Session session : sessions.values()) {
+            if (session.recording.getState() == RecordingState.RUNNING) {
+                throw new IllegalStateException("Recording " + session.recording.getId() + " is still running");
+            }
+        }
+        RecordingProfile profile = RecordingProfile.of(profileName);
+        Duration duration = requested != null ? requested : properties.getDefaultDuration();
+        if (duration.compareTo(properties.getMaxDuration()) > 0) {
+            duration = properties.getMaxDuration();
+        }
+
+        Recording recording = new Recording(profile.settings());
+        recording.setName("adapt-" + profile.id());
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        Path file = directory.resolve("recording-" + recording.getId() + "-" + profile.id() + ".jfr");
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        Session session = new Session(recording, profile, file);
+        sessions.put(recording.getId(), session);
+        prune();
+        log.info("Flight recording {} started: profile {}, duration {}", recording.getId(), profile.id(), duration);
+        return session.info();
+    }
+
+    public synchronized RecordingInfo stopRecording(String id) {
+        Session session = session(id);
+        if (session.recording.getState() == RecordingState.RUNNING) {
+            // Writes the destination file
+            session.recording.stop();
+            log.info("Flight recording {} stopped early", session.recording.getId());
+        }
+        return session.info();
+    }
+
+    /**
+     * The file for a recording: the finished file, or a snapshot of what a running one (or the continuous
+     * recording) holds so far.
+     */
+    public synchronized Path recordingFile(String id) {
+        if (CONTINUOUS.equals(id)) {
+            if (continuous == null) {
+                throw new NoSuchElementException("No continuous recording; set adapt.profiling.continuous.enabled");
+            }
+            return snapshot(CONTINUOUS, continuous);
+        }
+        Session session = session(id);
+        if (session.recording.getState() == RecordingState.RUNNING) {
+            return snapshot(id, session.recording);
+        }
+        if (!Files.exists(session.file)) {
+            throw new IllegalStateException("Recording " + id + " has no data yet");
+        }
+        return session.file;
+    }
+
+    public RecordingSummary summarize(String id) {
+        return RecordingSummary.of(recordingFile(id), properties.getSummaryTop());
+    }
+
+    public synchronized Status status() {
+        List<RecordingInfo> recordings = new ArrayList<>();
+        sessions.values().forEach(session -> recordings.add(session.info()));
+        RecordingInfo continuousInfo = continuous == null ? null : new RecordingInfo(CONTINUOUS, continuous.getName(),
+                properties.getContinuous().getProfile(), continuous.getState().name(), continuous.getStartTime(),
+                continuous.getMaxAge(), continuous.getSize());
+        return new Status(FlightRecorder.isAvailable(), continuousInfo, recordings);
+    }
+
+    private Session session(String id) {
+        Session session;
+        try {
+            session = sessions.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            session = null;
+        }
+        if (session == null) {
+            throw new NoSuchElementException("No recording " + id);
+        }
+        return session;
+    }
+
+    private Path snapshot(String id, Recording recording) {
+        Path file = directory.resolve("snapshot-" + id + "-" + System.currentTimeMillis() + ".jfr");
+        try {
+            recording.dump(file);
+            // A download of the previous snapshot still reads it after the delete
+            Path previous = snapshots.put(id, file);
+            if (previous != null) {
+                Files.deleteIfExists(previous);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot dump recording " + id, e);
+        }
+        return file;
+    }
+
+    private void prune() {
+        int finished = 0;
+        for (Session session : sessions.values()) {
+            finished += session.recording.getState() == RecordingState.RUNNING ? 0 : 1;
+        }
+        Iterator<Session> oldestFirst = sessions.values().iterator();
+        while (finished > properties.getRetainedRecordings() && oldestFirst.hasNext()) {
+            Session session = oldestFirst.next();
+            if (session.recording.getState() == RecordingState.RUNNING) {
+                continue;
+            }
+            session.recording.close();
+            try {
+                Files.deleteIfExists(session.file);
+                Path snapshot = snapshots.remove(String.valueOf(session.recording.getId()));
+                if (snapshot != null) {
+                    Files.deleteIfExists(snapshot);
+                }
+            } catch (IOException e) {
+                log.warn("Cannot delete old recording {}: {}", session.file, e.toString());
+            }
+            oldestFirst.remove();
+            finished--;
+        }
+    }
+
+    private record Session(Recording recording, RecordingProfile profile, Path file) {
+
+        private RecordingInfo info() {
+            return new RecordingInfo(String.valueOf(recording.getId()), recording.getName(), profile.id(),
+                    recording.getState().name(), recording.getStartTime(), recording.getDuration(),
+                    recording.getState() == RecordingState.RUNNING ? recording.getSize() : sizeOf(file));
+        }
+
+        private static long sizeOf(Path file) {
+            try {
+                return Files.exists(file) ? Files.size(file) : 0;
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+
+    public record RecordingInfo(String id, String name, String profile, String state, Instant startTime,
+                                Duration duration, long sizeBytes) {
+    }
+
+    public record Status(boolean available, RecordingInfo continuous, List<RecordingInfo> recordings) {
+    }
+}
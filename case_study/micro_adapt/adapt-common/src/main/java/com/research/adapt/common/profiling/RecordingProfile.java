@@ -0,0 +1,84 @@
+package com.research.adapt.common.profiling;
+
+import jdk.jfr.Configuration;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JFR settings a session can be started with. default and profile are the JDK's own configurations
+ * (about 1% and 2% overhead); the others start from default and turn up one kind of event.
+ * Every profile leaves out the initial environment variables and system and security properties: recordings are
+ * served over HTTP and the environment holds credentials such as SPRING_DATASOURCE_PASSWORD.
+ */
+enum RecordingProfile {
+
+    DEFAULT("default", Map.of()),
+    PROFILE("profile", Map.of()),
+    CPU("default", Map.of(
+            "jdk.ExecutionSample#enabled", "true",
+            "jdk.ExecutionSample#period", "10 ms",
+            "jdk.NativeMethodSample#enabled", "true",
+            "jdk.NativeMethodSample#period", "20 ms")),
+    ALLOCATION("default", Map.of(
+            "jdk.ObjectAllocationSample#enabled", "true",
+            "jdk.ObjectAllocationSample#throttle", "1000/s",
+            "jdk.ObjectAllocationSample#stackTrace", "true",
+            "jdk.OldObjectSample#enabled", "true")),
+    LOCKS("default", Map.of(
+            "jdk.JavaMonitorEnter#enabled", "true",
+            "jdk.JavaMonitorEnter#threshold", "1 ms",
+            "jdk.JavaMonitorWait#enabled", "true",
+            "jdk.JavaMonitorWait#threshold", "1 ms",
+            "jdk.ThreadPark#enabled", "true",
+            "jdk.ThreadPark#threshold", "1 ms")),
+    // Low enough to leave on: default plus sampled allocations and lock waits over 10 ms
+    CONTINUOUS("default", Map.of(
+            "jdk.ObjectAllocationSample#enabled", "true",
+            "jdk.ObjectAllocationSample#throttle", "150/s",
+            "jdk.JavaMonitorEnter#threshold", "10 ms",
+            "jdk.ThreadPark#threshold", "10 ms"));
+
+    private static final Map<String, String> REDACTED = Map.of(
+            "jdk.InitialEnvironmentVariable#enabled", "false",
+            "jdk.InitialSystemProperty#enabled", "false",
+            "jdk.InitialSecurityProperty#enabled", "false");
+
+    private final String base;
+    private final Map<String, String> overrides;
+
+    RecordingProfile(String base, Map<String, String> overrides) {
+        this.base = base;
+        this.overrides = overrides;
+    }
+
+    Map<String, String> settings() {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(base).getSettings());
+            settings.putAll(overrides);
+            settings.putAll(REDACTED);
+            return settings;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot read the JFR configuration " + base, e);
+        }
+    }
+
+    String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static RecordingProfile of(String name) {
+        if (name == null || name.isBlank()) {
+            return PROFILE;
+        }
+        for (RecordingProfile profile : values()) {
+            if (profile.id().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown profile '" + name + "', expected one of default, profile, cpu, allocation, locks, continuous");
+    }
+}
@@ -0,0 +1,118 @@
+package com.research.adapt.common.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Digest of a recording for a quick look without JDK Mission Control: the hottest methods in CPU samples,
+ * the top allocation sites by sampled bytes, and where threads waited longest to enter a monitor or take a lock.
+ * Sites are the first frame outside the JDK, since the top frame is usually Arrays.copyOf or AQS internals.
+ */
+public record RecordingSummary(long executionSamples, List<Entry> hotMethods,
+                               long allocatedBytesSampled, List<Entry> allocationSites,
+                               long contendedMillis, List<Entry> lockContention) {
+
+    /** count is samples, bytes or milliseconds depending on the table */
+    public record Entry(String site, String type, long count, double percent) {
+    }
+
+    static RecordingSummary of(Path file, int top) {
+        Table cpu = new Table();
+        Table allocation = new Table();
+        Table locks = new Table();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> cpu.add(topFrame(event.getStackTrace()), null, 1);
+                    case "jdk.ObjectAllocationSample" ->
+                            allocation.add(applicationFrame(event.getStackTrace()), className(event, "objectClass"),
+                                    event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter" ->
+                            locks.add(applicationFrame(event.getStackTrace()), className(event, "monitorClass"),
+                                    event.getDuration().toMillis());
+                    case "jdk.ThreadPark" -> {
+                        // Only parks on a lock; idle pool threads park on conditions and queues
+                        String parked = className(event, "parkedClass");
+                        if (parked != null && (parked.endsWith("Sync") || parked.contains("Lock"))) {
+                            locks.add(applicationFrame(event.getStackTrace()), parked, event.getDuration().toMillis());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read recording " + file, e);
+        }
+        return new RecordingSummary(cpu.total, cpu.top(top), allocation.total, allocation.top(top),
+                locks.total, locks.top(top));
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        if (!event.hasField(field)) {
+            return null;
+        }
+        RecordedClass type = event.getValue(field);
+        return type != null ? type.getName() : null;
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<no stack>";
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<no stack>";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    private static final class Table {
+
+        private final Map<String, Long> counts = new HashMap<>();
+        private long total;
+
+        private void add(String site, String type, long amount) {
+            counts.merge(type == null ? site : site + '\u0000' + type, amount, Long::sum);
+            total += amount;
+        }
+
+        private List<Entry> top(int limit) {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limit)
+                    .map(entry -> {
+                        String[] key = entry.getKey().split("\u0000", 2);
+                        return new Entry(key[0], key.length > 1 ? key[1] : null, entry.getValue(),
+                                total == 0 ? 0 : Math.round(1000.0 * entry.getValue() / total) / 10.0);
+                    })
+                    .toList();
+        }
+    }
+}
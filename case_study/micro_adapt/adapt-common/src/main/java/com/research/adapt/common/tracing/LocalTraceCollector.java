@@ -0,0 +1,99 @@
+package com.research.adapt.common.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a trace collector while testing sampling: keeps the most recently exported traces in memory
+ * and serves them on /actuator/sampledtraces ({@link SampledTracesEndpoint}) instead of needing Jaeger.
+ * Enable with adapt.tracing.local-collector.enabled=true; runs next to any other exporter.
+ */
+public class LocalTraceCollector implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final int maxTraces;
+    private final Map<String, List<SpanData>> traces;
+
+    public LocalTraceCollector(int maxTraces) {
+        this.maxTraces = maxTraces;
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanData>> eldest) {
+                return size() > LocalTraceCollector.this.maxTraces;
+            }
+        };
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            traces.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public synchronized List<TraceSummary> summaries() {
+        List<TraceSummary> summaries = new ArrayList<>();
+        traces.forEach((traceId, spans) -> summaries.add(summarize(traceId, spans)));
+        return summaries;
+    }
+
+    public synchronized List<SpanSummary> spans(String traceId) {
+        List<SpanSummary> result = new ArrayList<>();
+        for (SpanData span : traces.getOrDefault(traceId, List.of())) {
+            result.add(new SpanSummary(span.getSpanId(), span.getParentSpanId(), span.getName(), span.getKind().name(),
+                    span.getResource().getAttribute(SERVICE_NAME), span.getStartEpochNanos() / 1_000,
+                    durationMillis(span.getStartEpochNanos(), span.getEndEpochNanos()),
+                    span.getStatus().getStatusCode().name(), span.getAttributes().asMap().toString()));
+        }
+        return result;
+    }
+
+    private static TraceSummary summarize(String traceId, List<SpanData> spans) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        String root = null;
+        boolean error = false;
+        for (SpanData span : spans) {
+            start = Math.min(start, span.getStartEpochNanos());
+            end = Math.max(end, span.getEndEpochNanos());
+            error |= span.getStatus().getStatusCode() == StatusCode.ERROR;
+            if (root == null || !span.getParentSpanContext().isValid()) {
+                root = span.getName();
+            }
+        }
+        return new TraceSummary(traceId, root, spans.size(), durationMillis(start, end), error);
+    }
+
+    private static double durationMillis(long startNanos, long endNanos) {
+        return (endNanos - startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public record TraceSummary(String traceId, String rootSpan, int spans, double durationMs, boolean error) {
+    }
+
+    public record SpanSummary(String spanId, String parentSpanId, String name, String kind, String service,
+                              long startEpochMicros, double durationMs, String status, String attributes) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.research.adapt.common.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+/**
+ * /actuator/sampledtraces lists the traces held by the {@link LocalTraceCollector};
+ * /actuator/sampledtraces/{traceId} shows the spans of one.
+ */
+@Endpoint(id = "sampledtraces")
+public class SampledTracesEndpoint {
+
+    private final LocalTraceCollector collector;
+
+    public SampledTracesEndpoint(LocalTraceCollector collector) {
+        this.collector = collector;
+    }
+
+    @ReadOperation
+    public List<LocalTraceCollector.TraceSummary> traces() {
+        return collector.summaries();
+    }
+
+    @ReadOperation
+    public List<LocalTraceCollector.SpanSummary> trace(@Selector String traceId) {
+        return collector.spans(traceId);
+    }
+}
@@ -0,0 +1,67 @@
+package com.research.adapt.common.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces head sampling (management.tracing.sampling.probability) with {@link TailSamplingSpanProcessor}
+ * when adapt.tracing.tail-sampling.enabled is set, and adds the {@link LocalTraceCollector} when asked for.
+ * Runs before Boot's OpenTelemetry configuration so that its sampler and span processor list back off.
+ */
+@AutoConfiguration(
+        beforeName = "org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryAutoConfiguration",
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({SpanProcessor.class, SpanProcessors.class})
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TailSamplingAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "adapt.tracing.tail-sampling.enabled", havingValue = "true")
+    static class TailSamplingConfiguration {
+
+        /**
+         * Record every span, whatever the caller decided: the gateway may still head-sample,
+         * and a ParentBased sampler would then never see the slow requests it did not pick.
+         */
+        @Bean
+        Sampler otelSampler() {
+            return Sampler.alwaysOn();
+        }
+
+        /**
+         * The exporting processors (Boot's BatchSpanProcessor) only see the spans the tail sampler keeps.
+         */
+        @Bean
+        SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> spanProcessors, TailSamplingProperties properties,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+            SpanProcessor exporting = SpanProcessor.composite(spanProcessors.orderedStream().toList());
+            return SpanProcessors.of(new TailSamplingSpanProcessor(exporting, properties.getTailSampling(),
+                    meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "adapt.tracing.local-collector.enabled", havingValue = "true")
+    static class LocalCollectorConfiguration {
+
+        @Bean
+        LocalTraceCollector localTraceCollector(TailSamplingProperties properties) {
+            return new LocalTraceCollector(properties.getLocalCollector().getMaxTraces());
+        }
+
+        @Bean
+        SampledTracesEndpoint sampledTracesEndpoint(LocalTraceCollector localTraceCollector) {
+            return new SampledTracesEndpoint(localTraceCollector);
+        }
+    }
+}
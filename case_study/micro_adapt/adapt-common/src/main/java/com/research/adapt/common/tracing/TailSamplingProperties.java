@@ -0,0 +1,116 @@
+package com.research.adapt.common.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tail-based trace sampling ({@link TailSamplingSpanProcessor}) and the local stand-in collector, from adapt.tracing.
+ */
+@ConfigurationProperties(prefix = "adapt.tracing")
+public class TailSamplingProperties {
+
+    private final TailSampling tailSampling = new TailSampling();
+    private final LocalCollector localCollector = new LocalCollector();
+
+    public TailSampling getTailSampling() {
+        return tailSampling;
+    }
+
+    public LocalCollector getLocalCollector() {
+        return localCollector;
+    }
+
+    public static class TailSampling {
+
+        private boolean enabled = false;
+        // A local trace whose root span takes at least this long is exported
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        // Fraction of the remaining traces exported anyway, chosen by trace id so every service picks the same ones
+        private double sampleRate = 0.01;
+        // Longest a trace is held waiting for its local root span to end
+        private Duration decisionWait = Duration.ofSeconds(30);
+        // How long a decision is remembered for spans that end after their local root
+        private Duration lateSpanWindow = Duration.ofSeconds(10);
+        private int maxTraces = 10_000;
+        private int maxSpansPerTrace = 1_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getDecisionWait() {
+            return decisionWait;
+        }
+
+        public void setDecisionWait(Duration decisionWait) {
+            this.decisionWait = decisionWait;
+        }
+
+        public Duration getLateSpanWindow() {
+            return lateSpanWindow;
+        }
+
+        public void setLateSpanWindow(Duration lateSpanWindow) {
+            this.lateSpanWindow = lateSpanWindow;
+        }
+
+        public int getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(int maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+
+        public int getMaxSpansPerTrace() {
+            return maxSpansPerTrace;
+        }
+
+        public void setMaxSpansPerTrace(int maxSpansPerTrace) {
+            this.maxSpansPerTrace = maxSpansPerTrace;
+        }
+    }
+
+    public static class LocalCollector {
+
+        private boolean enabled = false;
+        private int maxTraces = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(int maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+    }
+}
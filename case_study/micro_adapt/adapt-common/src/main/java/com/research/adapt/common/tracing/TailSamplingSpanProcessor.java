@@ -0,0 +1,240 @@
+package com.research.adapt.common.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based sampling in front of the exporting span processor: every span is recorded, but held per local trace
+ * until its local root span (the server or consumer span that entered this service) ends. Only then is the local
+ * trace forwarded for export, and only if it is
+ * <ul>
+ * <li>errored: any of its spans has status ERROR,</li>
+ * <li>slow: the local root took at least the latency threshold,</li>
+ * <li>or randomly selected: a fraction of trace ids, derived from the id itself so all services keep the same traces.</li>
+ * </ul>
+ * Each service decides for its own part of a trace, and separately for every time the trace enters it: the Kafka
+ * consumer span of a saga step gets its own decision rather than inheriting the one made for the HTTP request
+ * before it, so a slow or failing later hop is kept. Spans are assigned to their local root when they start.
+ * Local traces whose root never ends within the decision wait are decided on what arrived.
+ * Outcomes are counted in adapt.tracing.tail.traces (decision, reason).
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private enum Reason { ERROR, SLOW, RANDOM, NONE }
+
+    private final SpanProcessor delegate;
+    private final long latencyThresholdNanos;
+    private final long randomBound;
+    private final long decisionWaitNanos;
+    private final long lateSpanWindowNanos;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    // Span id -> its local trace, from start until the local trace's decision expires
+    private final Map<String, LocalTrace> members = new ConcurrentHashMap<>();
+    private final Map<String, LocalTrace> localTraces = new ConcurrentHashMap<>();
+    private final Map<Reason, Counter> outcomes = new EnumMap<>(Reason.class);
+    private final Counter overflow;
+    private final ScheduledExecutorService sweeper;
+
+    public TailSamplingSpanProcessor(SpanProcessor delegate, TailSamplingProperties.TailSampling properties,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.randomBound = (long) (Math.max(0, Math.min(1, properties.getSampleRate())) * Long.MAX_VALUE);
+        this.decisionWaitNanos = properties.getDecisionWait().toNanos();
+        this.lateSpanWindowNanos = properties.getLateSpanWindow().toNanos();
+        this.maxTraces = properties.getMaxTraces();
+        this.maxSpansPerTrace = properties.getMaxSpansPerTrace();
+        for (Reason reason : Reason.values()) {
+            outcomes.put(reason, Counter.builder("adapt.tracing.tail.traces")
+                    .description("Local traces decided by the tail sampler")
+                    .tags("decision", reason == Reason.NONE ? "dropped" : "kept", "reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.overflow = Counter.builder("adapt.tracing.tail.overflow")
+                .description("Spans decided without buffering because the trace or span limit was reached")
+                .register(meterRegistry);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "tail-sampling-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        SpanContext context = span.getSpanContext();
+        LocalTrace trace = isLocalRoot(span) ? null : members.get(span.getParentSpanContext().getSpanId());
+        if (trace == null && localTraces.size() < maxTraces) {
+            // A local root, or a child whose parent is no longer tracked: a local trace of its own
+            trace = new LocalTrace(context.getTraceId(), context.getSpanId());
+            localTraces.put(trace.key, trace);
+        }
+        if (trace != null) {
+            trace.addMember(context.getSpanId());
+            members.put(context.getSpanId(), trace);
+        }
+        if (delegate.isStartRequired()) {
+            delegate.onStart(parentContext, span);
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        LocalTrace trace = members.get(span.getSpanContext().getSpanId());
+        if (trace == null) {
+            overflow.increment();
+            decide(span.getSpanContext().getTraceId(), List.of(span), span);
+            return;
+        }
+        synchronized (trace) {
+            if (trace.keep != null) {
+                if (trace.keep) {
+                    delegate.onEnd(span);
+                }
+                return;
+            }
+            if (trace.spans.size() < maxSpansPerTrace) {
+                trace.spans.add(span);
+            } else {
+                overflow.increment();
+            }
+            if (trace.rootSpanId.equals(span.getSpanContext().getSpanId())) {
+                trace.keep = decide(trace.traceId, new ArrayList<>(trace.spans), span);
+                trace.decidedAt = System.nanoTime();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        sweeper.shutdownNow();
+        localTraces.values().forEach(trace -> decideOnWhatArrived(trace, System.nanoTime(), true));
+        return delegate.shutdown();
+    }
+
+    /** Forwards the spans if the local trace is kept; returns the decision */
+    private boolean decide(String traceId, List<ReadableSpan> spans, ReadableSpan root) {
+        Reason reason = reason(traceId, spans, root);
+        boolean keep = reason != Reason.NONE;
+        outcomes.get(reason).increment();
+        if (keep) {
+            spans.forEach(delegate::onEnd);
+        }
+        return keep;
+    }
+
+    private Reason reason(String traceId, List<ReadableSpan> spans, ReadableSpan root) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (ReadableSpan span : spans) {
+            SpanData data = span.toSpanData();
+            if (data.getStatus().getStatusCode() == StatusCode.ERROR) {
+                return Reason.ERROR;
+            }
+            start = Math.min(start, data.getStartEpochNanos());
+            end = Math.max(end, data.getEndEpochNanos());
+        }
+        long duration = root != null ? root.getLatencyNanos() : end - start;
+        if (duration >= latencyThresholdNanos) {
+            return Reason.SLOW;
+        }
+        return randomlySelected(traceId) ? Reason.RANDOM : Reason.NONE;
+    }
+
+    /** Same rule as TraceIdRatioBasedSampler: the low 64 bits of the trace id against the rate */
+    private boolean randomlySelected(String traceId) {
+        return Math.abs(Long.parseUnsignedLong(traceId.substring(16), 16)) < randomBound;
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        localTraces.values().forEach(trace -> {
+            decideOnWhatArrived(trace, now, false);
+            if (trace.expired(now, lateSpanWindowNanos) && localTraces.remove(trace.key, trace)) {
+                trace.memberIds().forEach(spanId -> members.remove(spanId, trace));
+            }
+        });
+    }
+
+    /** Decides a local trace whose root has not ended, once the decision wait is over or when forced */
+    private void decideOnWhatArrived(LocalTrace trace, long now, boolean force) {
+        synchronized (trace) {
+            if (trace.keep == null && (force || now - trace.createdAt >= decisionWaitNanos)) {
+                trace.keep = decide(trace.traceId, new ArrayList<>(trace.spans), null);
+                trace.decidedAt = now;
+            }
+        }
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    /**
+     * The spans under one local root; guarded by its own monitor. keep is null until decided.
+     */
+    private static final class LocalTrace {
+
+        private final String traceId;
+        private final String rootSpanId;
+        private final String key;
+        private final long createdAt = System.nanoTime();
+        private final List<ReadableSpan> spans = new ArrayList<>();
+        private final List<String> memberIds = new ArrayList<>();
+        private Boolean keep;
+        private long decidedAt;
+
+        private LocalTrace(String traceId, String rootSpanId) {
+            this.traceId = traceId;
+            this.rootSpanId = rootSpanId;
+            this.key = traceId + '/' + rootSpanId;
+        }
+
+        private synchronized void addMember(String spanId) {
+            memberIds.add(spanId);
+        }
+
+        private synchronized List<String> memberIds() {
+            return new ArrayList<>(memberIds);
+        }
+
+        private synchronized boolean expired(long now, long lateSpanWindowNanos) {
+            return keep != null && now - decidedAt >= lateSpanWindowNanos;
+        }
+    }
+}
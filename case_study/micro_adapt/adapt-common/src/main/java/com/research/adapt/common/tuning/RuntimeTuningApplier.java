@@ -0,0 +1,204 @@
+package com.research.adapt.common.tuning;
+
+import com.research.adapt.common.messaging.ListenerConcurrencyCoordinator;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies changed adapt.tuning values after /actuator/refresh has rebound {@link RuntimeTuningProperties}.
+ * <ul>
+ * <li>Listener concurrency and max.poll.records: the container is stopped and started again with the new values,
+ * through the {@link ListenerConcurrencyCoordinator} the lag autoscaler (adapt.kafka.lag.autoscale.enabled) uses too,
+ * so the two never restart a container at the same time. Concurrency is compared with the previously bound value,
+ * not the running container's, so a refresh that changes something else leaves alone whatever the autoscaler has set.
+ * Stopping lets the consumers finish the records already handed to the listener and commit them, per record or per
+ * poll (ack modes RECORD and BATCH); records fetched but not yet processed are not committed, so the restarted
+ * consumers fetch them again. Containers with enable.auto.commit, such as order-service's saga progress listener,
+ * commit on the client's schedule instead; that one only relays best-effort SSE updates and seeks to the log end on
+ * every assignment anyway.</li>
+ * <li>Producer linger.ms and batch.size: the {@link SwappableProducerFactory} under the KafkaTemplate switches to a
+ * copy with the new configuration, then flushes and closes the old producer, so no send hits a closed producer.</li>
+ * <li>Connection pool size: HikariCP resizes the running pool, so no connection in use is closed.</li>
+ * </ul>
+ * Every change is logged and counted in adapt.tuning.changes; adapt.tuning.value holds the value last applied.
+ */
+public class RuntimeTuningApplier implements ApplicationListener<RefreshScopeRefreshedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(RuntimeTuningApplier.class);
+    private static final boolean HIKARI_PRESENT =
+            ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", RuntimeTuningApplier.class.getClassLoader());
+
+    private final RuntimeTuningProperties properties;
+    private final ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry;
+    private final ListenerConcurrencyCoordinator coordinator;
+    private final ObjectProvider<ProducerFactory<?, ?>> producerFactories;
+    private final ObjectProvider<DataSource> dataSources;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> appliedValues = new ConcurrentHashMap<>();
+    private final Map<String, Integer> startupMaxPollRecords = new HashMap<>();
+    private final Integer startupDefaultMaxPollRecords;
+    private final Map<String, Integer> startupConcurrency = new HashMap<>();
+    private final Integer startupDefaultConcurrency;
+    private final Map<String, Integer> boundConcurrency = new HashMap<>();
+
+    public RuntimeTuningApplier(RuntimeTuningProperties properties,
+                                ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry,
+                                ListenerConcurrencyCoordinator coordinator,
+                                ObjectProvider<ProducerFactory<?, ?>> producerFactories,
+                                ObjectProvider<DataSource> dataSources,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.listenerRegistry = listenerRegistry;
+        this.coordinator = coordinator;
+        this.producerFactories = producerFactories;
+        this.dataSources = dataSources;
+        this.meterRegistry = meterRegistry;
+        this.startupDefaultMaxPollRecords = properties.getListener().getMaxPollRecords();
+        this.startupDefaultConcurrency = properties.getListener().getConcurrency();
+        properties.getListener().getOverrides().forEach((id, override) -> {
+            startupMaxPollRecords.put(id, properties.getListener().maxPollRecords(id));
+            startupConcurrency.put(id, properties.getListener().concurrency(id));
+        });
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(RefreshScopeRefreshedEvent event) {
+        listenerRegistry.ifAvailable(this::applyListeners);
+        producerFactories.orderedStream().forEach(this::applyProducer);
+        if (HIKARI_PRESENT) {
+            dataSources.orderedStream().forEach(this::applyDatasource);
+        }
+    }
+
+    private void applyListeners(KafkaListenerEndpointRegistry registry) {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent)) {
+                continue;
+            }
+            String id = container.getListenerId();
+            Integer concurrency = properties.getListener().concurrency(id);
+            Integer maxPollRecords = properties.getListener().maxPollRecords(id);
+            Properties consumerProperties = container.getContainerProperties().getKafkaConsumerProperties();
+
+            // Until a refresh sets it on the container, the consumer factory's value is the one seeded at startup
+            Object currentMaxPoll = consumerProperties.containsKey(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)
+                    ? consumerProperties.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)
+                    : startupMaxPollRecords.getOrDefault(id, startupDefaultMaxPollRecords);
+
+            // The properties are rebound in place, so the value bound before this refresh is kept here
+            Integer previousConcurrency = boundConcurrency.containsKey(id)
+                    ? boundConcurrency.get(id)
+                    : startupConcurrency.getOrDefault(id, startupDefaultConcurrency);
+            boundConcurrency.put(id, concurrency);
+
+            int currentConcurrency = coordinator.concurrency(concurrent);
+            boolean concurrencyChanged = concurrency != null && !concurrency.equals(previousConcurrency)
+                    && concurrency != currentConcurrency;
+            boolean maxPollChanged = changed(currentMaxPoll, maxPollRecords);
+            if (!concurrencyChanged && !maxPollChanged) {
+                continue;
+            }
+            if (concurrencyChanged) {
+                audit("listener.concurrency", id, currentConcurrency, concurrency);
+            }
+            if (maxPollChanged) {
+                audit("listener.max-poll-records", id, currentMaxPoll, maxPollRecords);
+            }
+            coordinator.reconfigure(concurrent, concurrencyChanged ? concurrency : null, c -> {
+                if (maxPollChanged) {
+                    // Container-level consumer properties take precedence over the consumer factory's
+                    consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords.toString());
+                }
+            });
+        }
+    }
+
+    private void applyProducer(ProducerFactory<?, ?> factory) {
+        if (!(factory instanceof SwappableProducerFactory<?, ?> producerFactory)) {
+            return;
+        }
+        Map<String, Object> current = producerFactory.getConfigurationProperties();
+        Map<String, Object> updates = new HashMap<>();
+        RuntimeTuningProperties.Producer producer = properties.getProducer();
+        String target = Objects.toString(current.get(ProducerConfig.CLIENT_ID_CONFIG), "producer");
+        if (changed(current.get(ProducerConfig.LINGER_MS_CONFIG), producer.getLingerMs())) {
+            audit("producer.linger-ms", target, current.get(ProducerConfig.LINGER_MS_CONFIG), producer.getLingerMs());
+            updates.put(ProducerConfig.LINGER_MS_CONFIG, producer.getLingerMs());
+        }
+        if (changed(current.get(ProducerConfig.BATCH_SIZE_CONFIG), producer.getBatchSize())) {
+            audit("producer.batch-size", target, current.get(ProducerConfig.BATCH_SIZE_CONFIG), producer.getBatchSize());
+            updates.put(ProducerConfig.BATCH_SIZE_CONFIG, producer.getBatchSize());
+        }
+        if (!updates.isEmpty()) {
+            producerFactory.swap(updates);
+        }
+    }
+
+    private void applyDatasource(DataSource dataSource) {
+        HikariConfigMXBean pool;
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return;
+            }
+            pool = dataSource.unwrap(HikariDataSource.class).getHikariConfigMXBean();
+        } catch (SQLException e) {
+            log.warn("Cannot reach the connection pool to apply tuning: {}", e.toString());
+            return;
+        }
+        RuntimeTuningProperties.Datasource datasource = properties.getDatasource();
+        String target = pool.getPoolName();
+        if (changed(pool.getMaximumPoolSize(), datasource.getMaximumPoolSize())) {
+            audit("datasource.maximum-pool-size", target, pool.getMaximumPoolSize(), datasource.getMaximumPoolSize());
+            pool.setMaximumPoolSize(datasource.getMaximumPoolSize());
+        }
+        if (changed(pool.getMinimumIdle(), datasource.getMinimumIdle())) {
+            audit("datasource.minimum-idle", target, pool.getMinimumIdle(), datasource.getMinimumIdle());
+            pool.setMinimumIdle(datasource.getMinimumIdle());
+        }
+    }
+
+    private static boolean changed(Object current, Integer desired) {
+        return desired != null && (current == null || !desired.toString().equals(current.toString()));
+    }
+
+    private void audit(String setting, String target, Object from, int to) {
+        log.info("Tuning change {} for {}: {} -> {}", setting, target, from, to);
+        Counter.builder("adapt.tuning.changes")
+                .description("Runtime tuning changes applied after a configuration refresh")
+                .tags("setting", setting, "target", target)
+                .register(meterRegistry)
+                .increment();
+        appliedValues.computeIfAbsent(setting + '\u0000' + target, key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("adapt.tuning.value", value, AtomicLong::get)
+                    .description("Value last applied by runtime tuning")
+                    .tags("setting", setting, "target", target)
+                    .register(meterRegistry);
+            return value;
+        }).set(to);
+    }
+}
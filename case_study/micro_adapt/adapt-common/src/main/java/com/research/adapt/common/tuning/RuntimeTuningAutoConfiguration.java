@@ -0,0 +1,55 @@
+package com.research.adapt.common.tuning;
+
+import com.research.adapt.common.messaging.ListenerConcurrencyAutoConfiguration;
+import com.research.adapt.common.messaging.ListenerConcurrencyCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Hot-applies adapt.tuning in services that use the config client (spring-cloud-context provides /actuator/refresh).
+ */
+@AutoConfiguration(after = ListenerConcurrencyAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({RefreshScopeRefreshedEvent.class, KafkaListenerEndpointRegistry.class, MeterRegistry.class})
+@EnableConfigurationProperties(RuntimeTuningProperties.class)
+public class RuntimeTuningAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public RuntimeTuningApplier runtimeTuningApplier(RuntimeTuningProperties properties,
+                                                     ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry,
+                                                     ListenerConcurrencyCoordinator coordinator,
+                                                     ObjectProvider<ProducerFactory<?, ?>> producerFactories,
+                                                     ObjectProvider<DataSource> dataSources,
+                                                     MeterRegistry meterRegistry) {
+        return new RuntimeTuningApplier(properties, listenerRegistry, coordinator, producerFactories, dataSources,
+                meterRegistry);
+    }
+
+    /**
+     * Puts every producer factory behind a {@link SwappableProducerFactory}, so tuning can replace it under its
+     * KafkaTemplate instead of closing the producer the template shares.
+     */
+    @Bean
+    public static BeanPostProcessor swappableProducerFactories() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DefaultKafkaProducerFactory<?, ?> factory
+                        ? new SwappableProducerFactory<>(factory) : bean;
+            }
+        };
+    }
+}
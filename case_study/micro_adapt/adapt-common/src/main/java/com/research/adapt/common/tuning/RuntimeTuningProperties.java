@@ -0,0 +1,140 @@
+package com.research.adapt.common.tuning;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Throughput settings that {@link RuntimeTuningApplier} applies to the running service on /actuator/refresh,
+ * from adapt.tuning (usually served by config-server). The same keys seed the beans at startup:
+ * the services' KafkaConfig for listeners and producers, adapt-persistence.yml for the connection pool.
+ * A null value leaves the setting alone.
+ */
+@ConfigurationProperties(prefix = "adapt.tuning")
+public class RuntimeTuningProperties {
+
+    private final Listener listener = new Listener();
+    private final Producer producer = new Producer();
+    private final Datasource datasource = new Datasource();
+
+    public Listener getListener() {
+        return listener;
+    }
+
+    public Producer getProducer() {
+        return producer;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public static class Listener {
+
+        private Integer concurrency;
+        private Integer maxPollRecords;
+        // Per listener id, for containers that must not follow the defaults (e.g. broadcast listeners)
+        private Map<String, ListenerOverride> overrides = new LinkedHashMap<>();
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Integer getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(Integer maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public Map<String, ListenerOverride> getOverrides() {
+            return overrides;
+        }
+
+        public void setOverrides(Map<String, ListenerOverride> overrides) {
+            this.overrides = overrides;
+        }
+
+        public Integer concurrency(String listenerId) {
+            ListenerOverride override = overrides.get(listenerId);
+            return override != null && override.getConcurrency() != null ? override.getConcurrency() : concurrency;
+        }
+
+        public Integer maxPollRecords(String listenerId) {
+            ListenerOverride override = overrides.get(listenerId);
+            return override != null && override.getMaxPollRecords() != null ? override.getMaxPollRecords() : maxPollRecords;
+        }
+    }
+
+    public static class ListenerOverride {
+
+        private Integer concurrency;
+        private Integer maxPollRecords;
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Integer getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(Integer maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+    }
+
+    public static class Producer {
+
+        private Integer lingerMs;
+        private Integer batchSize;
+
+        public Integer getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(Integer lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Datasource {
+
+        private Integer maximumPoolSize;
+        private Integer minimumIdle;
+
+        public Integer getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(Integer maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Integer getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(Integer minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+    }
+}
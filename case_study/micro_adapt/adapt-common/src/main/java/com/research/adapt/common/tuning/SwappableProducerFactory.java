@@ -0,0 +1,168 @@
+package com.research.adapt.common.tuning;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.core.ProducerPostProcessor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Producer factory that runtime tuning can replace under the KafkaTemplate that holds it.
+ * {@link #swap} builds a copy of the current factory with the new configuration and switches to it in one step,
+ * then flushes the old factory's producer and closes it: sends from then on go to the new producer, and records
+ * already handed to the old one are delivered before it closes instead of failing on a producer closed mid-send.
+ */
+public class SwappableProducerFactory<K, V> implements ProducerFactory<K, V>, DisposableBean {
+
+    private final AtomicReference<DefaultKafkaProducerFactory<K, V>> current;
+
+    public SwappableProducerFactory(DefaultKafkaProducerFactory<K, V> initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /**
+     * Switches to a copy of the current factory with {@code overrides} applied, then retires the old one.
+     */
+    public synchronized void swap(Map<String, Object> overrides) {
+        DefaultKafkaProducerFactory<K, V> replacement =
+                (DefaultKafkaProducerFactory<K, V>) current.get().copyWithConfigurationOverride(overrides);
+        DefaultKafkaProducerFactory<K, V> retired = current.getAndSet(replacement);
+        // The retired factory's shared producer (closing this handle leaves it open for destroy())
+        Producer<K, V> producer = retired.createProducer();
+        producer.flush();
+        producer.close();
+        retired.destroy();
+    }
+
+    @Override
+    public void destroy() {
+        current.get().destroy();
+    }
+
+    @Override
+    public Producer<K, V> createProducer() {
+        return current.get().createProducer();
+    }
+
+    @Override
+    public Producer<K, V> createProducer(String txIdPrefix) {
+        return current.get().createProducer(txIdPrefix);
+    }
+
+    @Override
+    public Producer<K, V> createNonTransactionalProducer() {
+        return current.get().createNonTransactionalProducer();
+    }
+
+    @Override
+    public boolean transactionCapable() {
+        return current.get().transactionCapable();
+    }
+
+    @Override
+    public void closeThreadBoundProducer() {
+        current.get().closeThreadBoundProducer();
+    }
+
+    @Override
+    public void reset() {
+        current.get().reset();
+    }
+
+    @Override
+    public Map<String, Object> getConfigurationProperties() {
+        return current.get().getConfigurationProperties();
+    }
+
+    @Override
+    public Supplier<Serializer<V>> getValueSerializerSupplier() {
+        return current.get().getValueSerializerSupplier();
+    }
+
+    @Override
+    public Supplier<Serializer<K>> getKeySerializerSupplier() {
+        return current.get().getKeySerializerSupplier();
+    }
+
+    @Override
+    public Serializer<K> getKeySerializer() {
+        return current.get().getKeySerializer();
+    }
+
+    @Override
+    public Serializer<V> getValueSerializer() {
+        return current.get().getValueSerializer();
+    }
+
+    @Override
+    public boolean isProducerPerThread() {
+        return current.get().isProducerPerThread();
+    }
+
+    @Override
+    public String getTransactionIdPrefix() {
+        return current.get().getTransactionIdPrefix();
+    }
+
+    @Override
+    public Duration getPhysicalCloseTimeout() {
+        return current.get().getPhysicalCloseTimeout();
+    }
+
+    @Override
+    public void addListener(Listener<K, V> listener) {
+        current.get().addListener(listener);
+    }
+
+    @Override
+    public void addListener(int index, Listener<K, V> listener) {
+        current.get().addListener(index, listener);
+    }
+
+    @Override
+    public boolean removeListener(Listener<K, V> listener) {
+        return current.get().removeListener(listener);
+    }
+
+    @Override
+    public List<Listener<K, V>> getListeners() {
+        return current.get().getListeners();
+    }
+
+    @Override
+    public void addPostProcessor(ProducerPostProcessor<K, V> postProcessor) {
+        current.get().addPostProcessor(postProcessor);
+    }
+
+    @Override
+    public boolean removePostProcessor(ProducerPostProcessor<K, V> postProcessor) {
+        return current.get().removePostProcessor(postProcessor);
+    }
+
+    @Override
+    public List<ProducerPostProcessor<K, V>> getPostProcessors() {
+        return current.get().getPostProcessors();
+    }
+
+    @Override
+    public void updateConfigs(Map<String, Object> updates) {
+        current.get().updateConfigs(updates);
+    }
+
+    @Override
+    public void removeConfig(String configKey) {
+        current.get().removeConfig(configKey);
+    }
+
+    @Override
+    public ProducerFactory<K, V> copyWithConfigurationOverride(Map<String, Object> overrides) {
+        return current.get().copyWithConfigurationOverride(overrides);
+    }
+}
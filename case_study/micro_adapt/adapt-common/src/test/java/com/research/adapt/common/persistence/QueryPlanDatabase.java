@@ -0,0 +1,24 @@
+package com.research.adapt.common.persistence;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Test configuration for the repository query-plan tests: an embedded PostgreSQL behind a {@link QueryPlanRecorder}
+ * as the context's DataSource. Import it next to @AutoConfigureTestDatabase(replace = NONE), so Flyway migrates it.
+ */
+@Configuration(proxyBeanMethods = false)
+public class QueryPlanDatabase {
+
+    @Bean(destroyMethod = "close")
+    public QueryPlanRecorder queryPlanRecorder() {
+        return QueryPlanRecorder.start();
+    }
+
+    @Bean
+    public DataSource dataSource(QueryPlanRecorder recorder) {
+        return recorder.dataSource();
+    }
+}
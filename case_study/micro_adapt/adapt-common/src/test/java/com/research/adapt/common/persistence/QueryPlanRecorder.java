@@ -0,0 +1,172 @@
+package com.research.adapt.common.persistence;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Embedded PostgreSQL for the repository query-plan tests (shared through the adapt-common test jar)
+ * - {@link #dataSource()} records every SELECT with its bind values, so the plans are the ones the real finders get
+ * - {@link #assertNoSequentialScans(String)} runs EXPLAIN for the recorded statements and fails on any Seq Scan
+ * Tests load enough rows and ANALYZE before calling a finder; on a near-empty table a sequential scan is the right plan.
+ * EXPLAIN runs on the connection that executed the query, so it sees the test transaction's rows and statistics.
+ */
+public final class QueryPlanRecorder implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final DataSource target;
+    private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+
+    private QueryPlanRecorder(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+        this.target = postgres.getPostgresDatabase();
+    }
+
+    public static QueryPlanRecorder start() {
+        try {
+            return new QueryPlanRecorder(EmbeddedPostgres.builder().start());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+
+    /**
+     * The DataSource to hand to Spring; Flyway, Hibernate and the test's own JDBC all go through it.
+     */
+    public DataSource dataSource() {
+        return proxy(DataSource.class, target, (method, args, result) -> result instanceof Connection connection
+                ? recording(connection) : result);
+    }
+
+    public void reset() {
+        queries.clear();
+    }
+
+    /**
+     * EXPLAIN for every SELECT recorded since {@link #reset()}, with the bind values the finder used.
+     */
+    public List<String> explainRecorded() {
+        List<String> plans = new ArrayList<>();
+        try {
+            for (RecordedQuery query : queries) {
+                if (query.connection().isClosed()) {
+                    try (Connection connection = target.getConnection()) {
+                        plans.add(query.explain(connection));
+                    }
+                } else {
+                    plans.add(query.explain(query.connection()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("EXPLAIN failed", e);
+        }
+        return plans;
+    }
+
+    public void assertNoSequentialScans(String finder) {
+        if (queries.isEmpty()) {
+            throw new AssertionError(finder + " executed no SELECT");
+        }
+        List<String> plans = explainRecorded();
+        for (int i = 0; i < plans.size(); i++) {
+            if (plans.get(i).contains("Seq Scan")) {
+                throw new AssertionError(finder + " plans a sequential scan for\n  " + queries.get(i).sql()
+                        + "\n" + plans.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+
+    private Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+                        ? recording(statement, (String) args[0], connection) : result);
+    }
+
+    private PreparedStatement recording(PreparedStatement statement, String sql, Connection connection) {
+        if (!sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+            return statement;
+        }
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            if (isBinding(method)) {
+                bindings.add(new Binding(method, args));
+            } else if (method.getName().equals("clearParameters")) {
+                bindings.clear();
+            } else if (method.getName().equals("executeQuery") || method.getName().equals("execute")) {
+                queries.add(new RecordedQuery(sql, List.copyOf(bindings), connection));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * setLong(int, long), setString(int, String), setObject(int, Object, int) ...: parameter index first.
+     */
+    private static boolean isBinding(Method method) {
+        return method.getName().startsWith("set") && method.getParameterCount() >= 2
+                && method.getParameterTypes()[0] == int.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T delegate, ResultHook hook) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return hook.apply(method, args, result);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface ResultHook {
+        Object apply(Method method, Object[] args, Object result) throws Throwable;
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record RecordedQuery(String sql, List<Binding> bindings, Connection connection) {
+
+        String explain(Connection connection) throws SQLException {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (Binding binding : bindings) {
+                    try {
+                        binding.method().invoke(explain, binding.args());
+                    } catch (ReflectiveOperationException e) {
+                        throw new SQLException("Cannot replay " + binding.method().getName(), e);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append("  ").append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        }
+    }
+}
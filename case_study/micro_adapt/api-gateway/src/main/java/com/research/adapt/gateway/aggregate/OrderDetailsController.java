@@ -0,0 +1,129 @@
+package com.research.adapt.gateway.aggregate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.research.adapt.gateway.limit.AdaptiveConcurrencyGatewayFilterFactory;
+import com.research.adapt.gateway.limit.ConcurrencyLimitExceededException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composed order details: order, payment and invoice in one call
+ * The three backends are queried concurrently under a single latency budget, so the response
+ * takes as long as the slowest backend (capped by the budget) rather than the sum of three calls.
+ * Sections that fail or miss the budget are reported with their status instead of failing the whole response.
+ * Each call goes through the same concurrency limit and circuit breaker as the backend's route, so aggregation
+ * cannot add load to a saturated or failing backend that its route would already have shed.
+ */
+@RestController
+@RequestMapping("/api/order-details")
+public class OrderDetailsController {
+
+    // Limit and circuit breaker names of the backends' routes (application.yml)
+    private static final Backend ORDER = new Backend("order", "orderServiceCircuitBreaker");
+    private static final Backend PAYMENT = new Backend("payment", "paymentServiceCircuitBreaker");
+    private static final Backend BILLING = new Backend("billing", "billingServiceCircuitBreaker");
+
+    private final WebClient webClient;
+    private final AdaptiveConcurrencyGatewayFilterFactory concurrencyLimits;
+    private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakers;
+    private final MeterRegistry meterRegistry;
+    private final String orderServiceUrl;
+    private final String paymentServiceUrl;
+    private final String billingServiceUrl;
+    private final Duration budget;
+
+    public OrderDetailsController(WebClient.Builder webClientBuilder,
+                                  AdaptiveConcurrencyGatewayFilterFactory concurrencyLimits,
+                                  ReactiveCircuitBreakerFactory<?, ?> circuitBreakers,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ORDER_SERVICE_URL:http://localhost:8081}") String orderServiceUrl,
+                                  @Value("${PAYMENT_SERVICE_URL:http://localhost:8083}") String paymentServiceUrl,
+                                  @Value("${BILLING_SERVICE_URL:http://localhost:8084}") String billingServiceUrl,
+                                  @Value("${adapt.gateway.aggregation.budget:800ms}") Duration budget) {
+        this.webClient = webClientBuilder.build();
+        this.concurrencyLimits = concurrencyLimits;
+        this.circuitBreakers = circuitBreakers;
+        this.meterRegistry = meterRegistry;
+        this.orderServiceUrl = orderServiceUrl;
+        this.paymentServiceUrl = paymentServiceUrl;
+        this.billingServiceUrl = billingServiceUrl;
+        this.budget = budget;
+    }
+
+    @GetMapping("/{orderId}")
+    public Mono<ResponseEntity<OrderDetailsResponse>> getOrderDetails(@PathVariable Long orderId) {
+        long start = System.nanoTime();
+        return Mono.zip(
+                        fetch("order", ORDER, orderServiceUrl + "/api/orders/{id}", orderId),
+                        fetch("payment", PAYMENT, paymentServiceUrl + "/api/payments/order/{id}", orderId),
+                        fetch("invoice", BILLING, billingServiceUrl + "/api/invoices/order/{id}", orderId))
+                .map(sections -> {
+                    long elapsedNanos = System.nanoTime() - start;
+                    boolean complete = sections.getT1().isOk() && sections.getT2().isOk() && sections.getT3().isOk();
+                    meterRegistry.timer("adapt.gateway.aggregation.duration", "complete", Boolean.toString(complete))
+                            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+                    OrderDetailsResponse body = new OrderDetailsResponse(orderId, complete,
+                            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                            sections.getT1(), sections.getT2(), sections.getT3());
+                    return ResponseEntity.status(statusFor(sections.getT1())).body(body);
+                });
+    }
+
+    private Mono<SectionResult> fetch(String section, Backend backend, String uriTemplate, Long orderId) {
+        // Error statuses are results, not exceptions: like on the route, only failed calls count against the breaker
+        Mono<ResponseEntity<JsonNode>> call = webClient.get()
+                .uri(uriTemplate, orderId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> response.toEntity(JsonNode.class));
+        return concurrencyLimits.limit(backend.limit(), circuitBreakers.create(backend.circuitBreaker()).run(call))
+                .map(OrderDetailsController::section)
+                .timeout(budget)
+                .onErrorResume(TimeoutException.class, error -> Mono.just(SectionResult.failed("TIMEOUT", null)))
+                .onErrorResume(ConcurrencyLimitExceededException.class,
+                        error -> Mono.just(SectionResult.failed("REJECTED", 503)))
+                .onErrorResume(CallNotPermittedException.class,
+                        error -> Mono.just(SectionResult.failed("UNAVAILABLE", 503)))
+                .onErrorResume(error -> Mono.just(SectionResult.failed("ERROR", null)))
+                .doOnNext(result -> meterRegistry.counter("adapt.gateway.aggregation.sections",
+                        "section", section, "status", result.status()).increment());
+    }
+
+    private static SectionResult section(ResponseEntity<JsonNode> response) {
+        int status = response.getStatusCode().value();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response.getBody() != null ? SectionResult.ok(response.getBody()) : SectionResult.failed("NOT_FOUND", status);
+        }
+        return SectionResult.failed(status == 404 ? "NOT_FOUND" : "ERROR", status);
+    }
+
+    /** The order is the primary section: without it the response is a gateway error, otherwise 200 with partial data */
+    private static HttpStatus statusFor(SectionResult order) {
+        if (order.isOk()) {
+            return HttpStatus.OK;
+        }
+        return switch (order.status()) {
+            case "TIMEOUT" -> HttpStatus.GATEWAY_TIMEOUT;
+            case "NOT_FOUND" -> HttpStatus.NOT_FOUND;
+            case "REJECTED", "UNAVAILABLE" -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_GATEWAY;
+        };
+    }
+
+    private record Backend(String limit, String circuitBreaker) {
+    }
+}
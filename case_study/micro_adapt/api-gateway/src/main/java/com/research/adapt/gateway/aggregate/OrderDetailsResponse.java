@@ -0,0 +1,8 @@
+package com.research.adapt.gateway.aggregate;
+/**
+ * Order with its payment and invoice, composed by the gateway
+ * complete is false when any section is missing; each section carries its own status.
+ */
+public record OrderDetailsResponse(Long orderId, boolean complete, long elapsedMs,
+                                   SectionResult order, SectionResult payment, SectionResult invoice) {
+}
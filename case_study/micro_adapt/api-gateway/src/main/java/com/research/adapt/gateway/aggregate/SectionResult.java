@@ -0,0 +1,22 @@
+package com.research.adapt.gateway.aggregate;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One backend's part of a composed response
+ * status is OK, NOT_FOUND, ERROR, TIMEOUT, REJECTED (concurrency limit) or UNAVAILABLE (open circuit breaker);
+ * data is only present when OK.
+ */
+public record SectionResult(String status, Integer httpStatus, JsonNode data) {
+
+    public static SectionResult ok(JsonNode data) {
+        return new SectionResult("OK", 200, data);
+    }
+
+    public static SectionResult failed(String status, Integer httpStatus) {
+        return new SectionResult(status, httpStatus, null);
+    }
+
+    public boolean isOk() {
+        return "OK".equals(status);
+    }
+}
@@ -0,0 +1,47 @@
+package com.research.adapt.gateway.cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+/**
+ * Cached upstream response with its freshness windows
+ * fresh until freshUntil, served stale while revalidating until staleUntil,
+ * and kept as circuit-breaker fallback until fallbackUntil.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                             long storedAt, long freshUntil, long staleUntil, long fallbackUntil) {
+
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                                    Duration ttl, Duration staleWhileRevalidate, Duration staleIfError) {
+        long now = System.currentTimeMillis();
+        long freshUntil = now + ttl.toMillis();
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, etag, now, freshUntil,
+                freshUntil + staleWhileRevalidate.toMillis(), freshUntil + staleIfError.toMillis());
+    }
+
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    public boolean isRevalidatable(long now) {
+        return now < staleUntil;
+    }
+
+    public boolean isUsableAsFallback(long now) {
+        return now < fallbackUntil;
+    }
+
+    public long ageSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1000);
+    }
+
+    public boolean matches(HttpHeaders requestHeaders) {
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            if ("*".equals(candidate) || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
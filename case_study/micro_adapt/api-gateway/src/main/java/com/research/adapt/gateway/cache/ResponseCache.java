@@ -0,0 +1,112 @@
+package com.research.adapt.gateway.cache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-memory response store shared by all cached routes
+ * Caffeine evicts by total size: each entry weighs its body, headers and key, and max-bytes caps the sum,
+ * so a few large bodies cannot push the heap past the budget the way an entry count would.
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ */
+@Component
+public class ResponseCache {
+
+    /** Exchange attribute holding the cache key of the current request, read by the fallback */
+    public static final String CACHE_KEY_ATTR = ResponseCache.class.getName() + ".key";
+    /** Exchange attribute marking a response served from the cache, so it is not stored again */
+    public static final String CACHE_SERVED_ATTR = ResponseCache.class.getName() + ".served";
+
+    /** Fixed per-entry overhead (record, header map, key string), on top of the bytes actually held */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, CachedResponse> entries;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final int maxEntryBytes;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(@Value("${adapt.gateway.cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${adapt.gateway.cache.max-entry-bytes:262144}") int maxEntryBytes,
+                         MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(ResponseCache::weigh)
+                .build();
+        this.maxEntryBytes = maxEntryBytes;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("adapt.gateway.cache.entries", entries, Cache::estimatedSize)
+                .description("Responses currently held by the gateway cache")
+                .register(meterRegistry);
+        Gauge.builder("adapt.gateway.cache.bytes", entries,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Estimated bytes held by the gateway cache, bounded by adapt.gateway.cache.max-bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static String keyOf(ServerHttpRequest request) {
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "")
+                + (accept != null ? "|" + accept : "");
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        if (response.body().length <= maxEntryBytes) {
+            entries.put(key, response);
+        }
+    }
+
+    public void invalidate(String key) {
+        entries.invalidate(key);
+    }
+
+    /** Stale entry still inside its stale-if-error window, or null */
+    public CachedResponse fallback(String key) {
+        CachedResponse cached = key != null ? entries.getIfPresent(key) : null;
+        return cached != null && cached.isUsableAsFallback(System.currentTimeMillis()) ? cached : null;
+    }
+
+    private static int weigh(String key, CachedResponse response) {
+        long headerBytes = 0;
+        for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+            headerBytes += header.getKey().length();
+            for (String value : header.getValue()) {
+                headerBytes += value.length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE,
+                ENTRY_OVERHEAD_BYTES + 2L * key.length() + 2L * headerBytes + response.body().length);
+    }
+
+    public boolean beginRevalidation(String key) {
+        return revalidating.add(key);
+    }
+
+    public void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+
+    public int maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /** result is one of hit, stale, miss, revalidated, fallback */
+    public void record(String result) {
+        meterRegistry.counter("adapt.gateway.cache.requests", "result", result).increment();
+    }
+}
@@ -0,0 +1,336 @@
+package com.research.adapt.gateway.cache;
+import com.research.adapt.gateway.limit.AdaptiveConcurrencyGatewayFilterFactory;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Response cache for idempotent GETs, configured per route
+ * Fresh entries are answered by the gateway (with 304 on a matching If-None-Match),
+ * stale entries are served while a single background request refreshes them (under the route's own concurrency
+ * limit and circuit breaker),
+ * and expired entries stay available to FallbackController while the circuit is open.
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    // Must wrap the response before NettyWriteResponseFilter captures it, and sit outside SingleFlight
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    private static final Duration REVALIDATE_TIMEOUT = Duration.ofSeconds(5);
+    private static final String X_CACHE = "X-Cache";
+
+    private final ResponseCache cache;
+    private final WebClient webClient;
+    private final AdaptiveConcurrencyGatewayFilterFactory concurrencyLimits;
+    private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakers;
+    private final RouteDefinitionLocator routeDefinitions;
+    private final Map<String, Protection> protections = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache, WebClient.Builder webClientBuilder,
+                                             AdaptiveConcurrencyGatewayFilterFactory concurrencyLimits,
+                                             ReactiveCircuitBreakerFactory<?, ?> circuitBreakers,
+                                             RouteDefinitionLocator routeDefinitions) {
+        super(Config.class);
+        this.cache = cache;
+        this.webClient = webClientBuilder.build();
+        this.concurrencyLimits = concurrencyLimits;
+        this.circuitBreakers = circuitBreakers;
+        this.routeDefinitions = routeDefinitions;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseCache.keyOf(request);
+        exchange.getAttributes().put(ResponseCache.CACHE_KEY_ATTR, key);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = cache.get(key);
+
+        if (cached != null && cached.isFresh(now)) {
+            cache.record("hit");
+            return write(exchange, cached, "HIT", now);
+        }
+        if (cached != null && cached.isRevalidatable(now)) {
+            cache.record("stale");
+            revalidate(exchange, key, config);
+            return write(exchange, cached, "STALE", now);
+        }
+
+        cache.record("miss");
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key, config)).build());
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus, long now) {
+        exchange.getAttributes().put(ResponseCache.CACHE_SERVED_ATTR, Boolean.TRUE);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(X_CACHE, cacheStatus);
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        if (cached.matches(exchange.getRequest().getHeaders())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Refresh a stale entry from the route's backend, at most once per key at a time, with the Accept header the
+     * cache key was built from. The request holds a permit of the route's concurrency limit and goes through its
+     * circuit breaker, like a proxied one, so revalidation cannot add load the route would have shed.
+     * Failures (rejected, breaker open, errors) keep the stale entry, which then ages into the stale-if-error window.
+     */
+    private void revalidate(ServerWebExchange exchange, String key, Config config) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !route.getUri().getScheme().startsWith("http") || !cache.beginRevalidation(key)) {
+            return;
+        }
+        URI requestUri = exchange.getRequest().getURI();
+        URI upstream = UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(requestUri.getRawPath())
+                .replaceQuery(requestUri.getRawQuery())
+                .build(true)
+                .toUri();
+
+        String accept = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
+        Mono<ResponseEntity<byte[]>> call = webClient.get()
+                .uri(upstream)
+                .headers(headers -> {
+                    if (accept != null) {
+                        headers.set(HttpHeaders.ACCEPT, accept);
+                    }
+                })
+                .exchangeToMono(response -> response.toEntity(byte[].class));
+
+        protection(route)
+                .flatMap(protection -> protection.guard(call))
+                .timeout(REVALIDATE_TIMEOUT)
+                .doFinally(signal -> cache.endRevalidation(key))
+                .subscribe(entity -> {
+                    if (entity.getStatusCode().value() != HttpStatus.OK.value()) {
+                        return;
+                    }
+                    if (!isStorable(entity.getHeaders())) {
+                        cache.invalidate(key);
+                        return;
+                    }
+                    byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+                    HttpHeaders headers = storableHeaders(entity.getHeaders());
+                    String etag = etagOf(headers, body);
+                    headers.setETag(etag);
+                    cache.put(key, CachedResponse.of(entity.getStatusCode(), headers, body, etag,
+                            config.getTtl(), config.getStaleWhileRevalidate(), config.getStaleIfError()));
+                    cache.record("revalidated");
+                }, error -> log.debug("Revalidation of {} failed: {}", key, error.toString()));
+    }
+
+    /** Limit and breaker names of the route's AdaptiveConcurrency and CircuitBreaker filters, read once per route */
+    private Mono<Protection> protection(Route route) {
+        Protection known = protections.get(route.getId());
+        if (known != null) {
+            return Mono.just(known);
+        }
+        return routeDefinitions.getRouteDefinitions()
+                .filter(definition -> route.getId().equals(definition.getId()))
+                .next()
+                .map(this::protectionOf)
+                .defaultIfEmpty(new Protection(null, null))
+                .doOnNext(protection -> protections.put(route.getId(), protection));
+    }
+
+    private Protection protectionOf(RouteDefinition definition) {
+        String limit = null;
+        String circuitBreaker = null;
+        for (FilterDefinition filter : definition.getFilters()) {
+            if ("AdaptiveConcurrency".equals(filter.getName())) {
+                limit = nameOf(filter);
+            } else if ("CircuitBreaker".equals(filter.getName())) {
+                circuitBreaker = nameOf(filter);
+            }
+        }
+        return new Protection(limit, circuitBreaker);
+    }
+
+    /** The name argument, given as args.name or as the first shortcut argument */
+    private static String nameOf(FilterDefinition filter) {
+        Map<String, String> args = filter.getArgs();
+        return args.getOrDefault("name", args.values().stream().findFirst().orElse(null));
+    }
+
+    private static String etagOf(HttpHeaders headers, byte[] body) {
+        String upstreamEtag = headers.getETag();
+        return upstreamEtag != null ? upstreamEtag : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private static HttpHeaders storableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(source);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        headers.remove(HttpHeaders.SET_COOKIE);
+        return headers;
+    }
+
+    /**
+     * The cache key carries only path, query and Accept, so a response that varies on any other
+     * request header (or on *) would be replayed to clients it was not negotiated for.
+     */
+    private static boolean isStorable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        for (String vary : headers.getVary()) {
+            if (!HttpHeaders.ACCEPT.equalsIgnoreCase(vary.trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Buffers a successful upstream body so it can be stored, tagged with an ETag
+     * and answered with 304 when the client already holds that version.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Config config;
+
+        CachingResponse(ServerWebExchange exchange, String key, Config config) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()
+                    || exchange.getAttribute(ResponseCache.CACHE_SERVED_ATTR) != null) {
+                return super.writeWith(body);
+            }
+            if (!isStorable(getHeaders())) {
+                // Drop any older version kept for the stale-if-error fallback
+                cache.invalidate(key);
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpHeaders headers = storableHeaders(getHeaders());
+                        String etag = etagOf(headers, bytes);
+                        headers.setETag(etag);
+                        CachedResponse cached = CachedResponse.of(HttpStatus.OK, headers, bytes, etag,
+                                config.getTtl(), config.getStaleWhileRevalidate(), config.getStaleIfError());
+                        cache.put(key, cached);
+
+                        getHeaders().setETag(etag);
+                        getHeaders().set(X_CACHE, "MISS");
+                        if (cached.matches(exchange.getRequest().getHeaders())) {
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                            return setComplete();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    private class Protection {
+
+        private final String limit;
+        private final String circuitBreaker;
+
+        Protection(String limit, String circuitBreaker) {
+            this.limit = limit;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        <T> Mono<ResponseEntity<T>> guard(Mono<ResponseEntity<T>> call) {
+            Mono<ResponseEntity<T>> guarded = circuitBreaker != null ? circuitBreakers.create(circuitBreaker).run(call) : call;
+            return limit != null ? concurrencyLimits.limit(limit, guarded) : guarded;
+        }
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+        private Duration staleIfError = Duration.ofMinutes(5);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public void setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+        }
+    }
+}
@@ -1,47 +1,69 @@
 package com.research.adapt.gateway.config;
+import com.research.adapt.gateway.cache.CachedResponse;
+import com.research.adapt.gateway.cache.ResponseCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
+    private final ResponseCache responseCache;
+
+    public FallbackController(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     @GetMapping("/orders")
-    public ResponseEntity<String> ordersFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Order Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> ordersFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "Order Service is currently unavailable. Please try again later.");
     }
 
     @GetMapping("/inventory")
-    public ResponseEntity<String> inventoryFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Inventory Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> inventoryFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "Inventory Service is currently unavailable. Please try again later.");
     }
 
     @GetMapping("/payments")
-    public ResponseEntity<String> paymentsFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Payment Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> paymentsFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "Payment Service is currently unavailable. Please try again later.");
     }
 
     @GetMapping("/billing")
-    public ResponseEntity<String> billingFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Billing Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> billingFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "Billing Service is currently unavailable. Please try again later.");
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<String> notificationsFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Notification Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> notificationsFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "Notification Service is currently unavailable. Please try again later.");
     }
 
     @GetMapping("/users")
-    public ResponseEntity<String> usersFallback() {
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("User Service is currently unavailable. Please try again later.");
+    public ResponseEntity<?> usersFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "User Service is currently unavailable. Please try again later.");
+    }
+
+    /**
+     * Serve the last cached copy of the original request (stale-if-error) when the route caches responses,
+     * otherwise the static 503 message.
+     */
+    private ResponseEntity<?> staleOrUnavailable(ServerWebExchange exchange, String message) {
+        CachedResponse stale = responseCache.fallback(exchange.getAttribute(ResponseCache.CACHE_KEY_ATTR));
+        if (stale == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(message);
+        }
+        exchange.getAttributes().put(ResponseCache.CACHE_SERVED_ATTR, Boolean.TRUE);
+        responseCache.record("fallback");
+        return ResponseEntity.status(stale.status())
+                .headers(stale.headers())
+                .header("X-Cache", "STALE-IF-ERROR")
+                .header(HttpHeaders.AGE, Long.toString(stale.ageSeconds(System.currentTimeMillis())))
+                .body(stale.body());
     }
 }
@@ -0,0 +1,234 @@
+package com.research.adapt.gateway.limit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Adaptive concurrency limiter per downstream service
+ * Requests beyond the current limit get an immediate 503 instead of queueing in front of a saturated
+ * service; the limit follows observed latency (see GradientConcurrencyLimit). Routes sharing a name
+ * share one limit, so several routes to the same backend are limited together.
+ * The circuit breaker stays behind it as the fallback for outright failures. Requests the breaker answers without
+ * reaching the backend (open breaker, connection failures) are not latency samples and do not cut the limit; a
+ * backend that is down is the breaker's business, not a sign of too much concurrency. Timeouts do cut it.
+ * Calls the gateway makes on its own (aggregation, cache revalidation) share the same limits through {@link #limit}.
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    /** Exchange attribute marking a request shed by the limiter; such requests must not be retried */
+    public static final String REJECTED_ATTR = AdaptiveConcurrencyGatewayFilterFactory.class.getName() + ".rejected";
+
+    private final Map<String, GradientConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GradientConcurrencyLimit limit = limits.computeIfAbsent(config.getName(), name -> register(name, config));
+
+        return (exchange, chain) -> {
+            if (!limit.tryAcquire()) {
+                record(config.getName(), "rejected");
+                exchange.getAttributes().put(REJECTED_ATTR, Boolean.TRUE);
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                response.getHeaders().set("X-Concurrency-Limit", Integer.toString(limit.getLimit()));
+                return response.setComplete();
+            }
+
+            record(config.getName(), "accepted");
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limit.releaseWithoutSample();
+                    return;
+                }
+                Throwable breakerError = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+                if (breakerError != null && !(breakerError instanceof TimeoutException)) {
+                    limit.releaseWithoutSample();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR
+                        || breakerError != null
+                        || (status != null && status.is5xxServerError());
+                if (dropped) {
+                    record(config.getName(), "dropped");
+                }
+                limit.release(System.nanoTime() - start, dropped);
+            });
+        };
+    }
+
+    /**
+     * Runs a call the gateway makes itself under the limit of the routes named {@code name}, with the same sampling
+     * as the filter: 5xx and timeouts cut the limit, other errors (open breaker, connection failures) are no sample.
+     * Over the limit the call is not made and fails with {@link ConcurrencyLimitExceededException}.
+     */
+    public <T> Mono<ResponseEntity<T>> limit(String name, Mono<ResponseEntity<T>> call) {
+        GradientConcurrencyLimit limit = limits.computeIfAbsent(name, key -> {
+            Config config = new Config();
+            config.setName(key);
+            return register(key, config);
+        });
+        return Mono.defer(() -> {
+            if (!limit.tryAcquire()) {
+                record(name, "rejected");
+                return Mono.error(new ConcurrencyLimitExceededException(name, limit.getLimit()));
+            }
+            record(name, "accepted");
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(response -> {
+                        boolean dropped = response != null && response.getStatusCode().is5xxServerError();
+                        if (dropped) {
+                            record(name, "dropped");
+                        }
+                        limit.release(System.nanoTime() - start, dropped);
+                    })
+                    .doOnError(error -> {
+                        if (error instanceof TimeoutException) {
+                            record(name, "dropped");
+                            limit.release(System.nanoTime() - start, true);
+                        } else {
+                            limit.releaseWithoutSample();
+                        }
+                    })
+                    .doOnCancel(limit::releaseWithoutSample);
+        });
+    }
+
+    private GradientConcurrencyLimit register(String name, Config config) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(),
+                config.getMaxLimit(), config.getTolerance(), config.getSmoothing(), config.getBackoffRatio(),
+                config.getShortWindow(), config.getLongWindow());
+        Gauge.builder("adapt.gateway.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("adapt.gateway.concurrency.inflight", limit, GradientConcurrencyLimit::getInflight)
+                .description("Requests currently admitted by the limiter")
+                .tag("name", name)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    /** outcome is one of accepted, rejected, dropped */
+    private void record(String name, String outcome) {
+        meterRegistry.counter("adapt.gateway.concurrency.requests", "name", name, "outcome", outcome).increment();
+    }
+
+    public static class Config {
+
+        private String name;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        private double backoffRatio = 0.9;
+        private int shortWindow = 10;
+        private int longWindow = 600;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public int getShortWindow() {
+            return shortWindow;
+        }
+
+        public void setShortWindow(int shortWindow) {
+            this.shortWindow = shortWindow;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+    }
+}
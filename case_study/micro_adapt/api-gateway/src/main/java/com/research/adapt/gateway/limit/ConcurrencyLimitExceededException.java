@@ -0,0 +1,11 @@
+package com.research.adapt.gateway.limit;
+
+/**
+ * A call the gateway makes on its own was not made because the backend's concurrency limit was reached
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String name, int limit) {
+        super("Concurrency limit " + limit + " of " + name + " reached");
+    }
+}
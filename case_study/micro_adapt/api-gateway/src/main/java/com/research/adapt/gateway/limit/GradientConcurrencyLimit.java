@@ -0,0 +1,101 @@
+package com.research.adapt.gateway.limit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency-driven concurrency limit for one downstream service
+ * Compares the average round trip time of the last few requests (short window) with that of the last few hundred
+ * (long window): gradient = tolerance * longRtt / shortRtt, at most 1. While the two agree the limit grows by about
+ * sqrt(limit); once queueing inflates the recent RTT it shrinks in proportion, settling at the service's throughput
+ * knee. There is no probing phase that sheds traffic: the long window follows real changes in the service by itself,
+ * and is pulled down quickly when latency improves, so a slow spell does not leave the limit inflated.
+ * The limit only grows while at least half of it is in use; below that, latency says nothing about it.
+ * Timeouts and failures cut the limit multiplicatively (AIMD backoff).
+ */
+public class GradientConcurrencyLimit {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int shortWindow;
+    private final int longWindow;
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, double backoffRatio, int shortWindow, int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.shortWindow = shortWindow;
+        this.longWindow = longWindow;
+    }
+
+    /** Admit a request if fewer than the current limit are in flight; admitted requests must be released */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos observed round trip time, ignored for dropped requests
+     * @param dropped  the request failed or timed out
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightBefore = inflight.getAndDecrement();
+        update(rttNanos, inflightBefore, dropped);
+    }
+
+    /** Release without feeding the algorithm, e.g. when the client cancelled */
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, int inflightBefore, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+
+        shortRtt += (rttNanos - shortRtt) / shortWindow;
+        longRtt += (rttNanos - longRtt) / longWindow;
+        // Latency has fallen well below the long-term average: let the baseline catch up rather than wait it out
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (inflightBefore < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
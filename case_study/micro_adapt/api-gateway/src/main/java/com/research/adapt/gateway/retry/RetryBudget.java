@@ -0,0 +1,35 @@
+package com.research.adapt.gateway.retry;
+/**
+ * Token bucket bounding retries to a share of successful traffic
+ * Every successful request deposits percent/100 of a token and every retry withdraws a whole one,
+ * so in steady state retries stay under percent of successes. When a backend fails outright
+ * deposits stop, the bucket drains and retries stop instead of multiplying the load.
+ */
+public class RetryBudget {
+
+    private final double depositPerSuccess;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double percent, double initialTokens, double maxTokens) {
+        this.depositPerSuccess = percent / 100.0;
+        this.maxTokens = maxTokens;
+        this.tokens = Math.min(initialTokens, maxTokens);
+    }
+
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + depositPerSuccess);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
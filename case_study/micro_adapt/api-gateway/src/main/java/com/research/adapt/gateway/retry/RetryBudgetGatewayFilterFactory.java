@@ -0,0 +1,225 @@
+package com.research.adapt.gateway.retry;
+import com.research.adapt.gateway.limit.AdaptiveConcurrencyGatewayFilterFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Retries with a per-route retry budget
+ * Only requests that are safe to repeat are retried: idempotent methods, or requests carrying an
+ * Idempotency-Key header. Each retry spends a token from the route's RetryBudget, so an incident
+ * cannot multiply backend load by the retry count. Load shed by the concurrency limiter and
+ * circuit-breaker fallbacks are never retried. Routes with metadata {@code retry: false} (streams) are passed through.
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ */
+@Component
+public class RetryBudgetGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RetryBudgetGatewayFilterFactory.Config> {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String RETRY_METADATA = "retry";
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RetryBudgetGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String name = config.getRouteId() != null ? config.getRouteId() : "default";
+        RetryBudget budget = budgets.computeIfAbsent(name, key -> register(key, config));
+
+        return (exchange, chain) -> {
+            if (!isRepeatable(exchange) || retryDisabled(exchange)) {
+                return chain.filter(exchange);
+            }
+            if (exchange.getRequest().getMethod() == HttpMethod.GET || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+                return attempt(exchange, chain, config, budget, name, 0);
+            }
+            // Requests with a body are retried from a cached copy of it
+            return ServerWebExchangeUtils.cacheRequestBody(exchange, request ->
+                    attempt(exchange.mutate().request(request).build(), chain, config, budget, name, 0));
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                               RetryBudget budget, String name, int iteration) {
+        // Only this attempt's own error is caught; the outcome of a nested retry passes through unchanged
+        return chain.filter(exchange)
+                .then(Mono.fromSupplier(Optional::<Throwable>empty))
+                .onErrorResume(error -> isRetryable(error) ? Mono.just(Optional.of(error)) : Mono.error(error))
+                .flatMap(error -> error.isPresent()
+                        ? retry(exchange, chain, config, budget, name, iteration, Mono.error(error.get()))
+                        : completed(exchange, chain, config, budget, name, iteration));
+    }
+
+    private Mono<Void> completed(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                 RetryBudget budget, String name, int iteration) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || !config.getStatuses().contains(HttpStatus.resolve(status.value()))) {
+            if (status != null && !status.is5xxServerError()) {
+                budget.deposit();
+            }
+            return Mono.empty();
+        }
+        return retry(exchange, chain, config, budget, name, iteration, Mono.empty());
+    }
+
+    private Mono<Void> retry(ServerWebExchange exchange, GatewayFilterChain chain, Config config, RetryBudget budget,
+                             String name, int iteration, Mono<Void> giveUp) {
+        if (iteration >= config.getRetries()
+                || exchange.getResponse().isCommitted()
+                || exchange.getAttribute(AdaptiveConcurrencyGatewayFilterFactory.REJECTED_ATTR) != null
+                || exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+            return giveUp;
+        }
+        if (!budget.tryWithdraw()) {
+            record(name, "denied");
+            return giveUp;
+        }
+        record(name, "allowed");
+        ServerWebExchangeUtils.reset(exchange);
+        return Mono.delay(backoff(config, iteration))
+                .then(Mono.defer(() -> attempt(exchange, chain, config, budget, name, iteration + 1)));
+    }
+
+    private static Duration backoff(Config config, int iteration) {
+        long millis = config.getFirstBackoff().toMillis() << Math.min(iteration, 20);
+        return Duration.ofMillis(Math.min(millis, config.getMaxBackoff().toMillis()));
+    }
+
+    private static boolean isRepeatable(ServerWebExchange exchange) {
+        return IDEMPOTENT_METHODS.contains(exchange.getRequest().getMethod())
+                || exchange.getRequest().getHeaders().containsKey(IDEMPOTENCY_KEY_HEADER);
+    }
+
+    private static boolean retryDisabled(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null && "false".equals(String.valueOf(route.getMetadata().get(RETRY_METADATA)));
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        return error instanceof IOException || error instanceof TimeoutException;
+    }
+
+    private RetryBudget register(String name, Config config) {
+        RetryBudget budget = new RetryBudget(config.getBudgetPercent(), config.getInitialTokens(), config.getMaxTokens());
+        Gauge.builder("adapt.gateway.retry.budget", budget, RetryBudget::getTokens)
+                .description("Retry tokens currently available")
+                .tag("route", name)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    /** outcome is allowed or denied (budget exhausted) */
+    private void record(String name, String outcome) {
+        meterRegistry.counter("adapt.gateway.retry.attempts", "route", name, "outcome", outcome).increment();
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private int retries = 2;
+        private List<HttpStatus> statuses = List.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE);
+        private double budgetPercent = 10;
+        private double initialTokens = 10;
+        private double maxTokens = 100;
+        private Duration firstBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public List<HttpStatus> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(List<HttpStatus> statuses) {
+            this.statuses = statuses;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public double getInitialTokens() {
+            return initialTokens;
+        }
+
+        public void setInitialTokens(double initialTokens) {
+            this.initialTokens = initialTokens;
+        }
+
+        public double getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(double maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public Duration getFirstBackoff() {
+            return firstBackoff;
+        }
+
+        public void setFirstBackoff(Duration firstBackoff) {
+            this.firstBackoff = firstBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+}
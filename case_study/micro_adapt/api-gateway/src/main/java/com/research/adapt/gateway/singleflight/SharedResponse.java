@@ -0,0 +1,9 @@
+package com.research.adapt.gateway.singleflight;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Upstream response captured by the leader of a flight and replayed to every waiter
+ */
+public record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
@@ -0,0 +1,150 @@
+package com.research.adapt.gateway.singleflight;
+import com.research.adapt.gateway.cache.ResponseCache;
+import com.research.adapt.gateway.cache.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request coalescing for identical concurrent GETs
+ * The first request for a key (the leader) goes upstream; requests arriving while it is
+ * in flight wait for its response instead of issuing their own. If the leader fails or is
+ * cancelled, or a waiter times out, the waiter falls back to its own upstream call.
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ */
+@Component
+public class SingleFlightGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    // Inside ResponseCache (hits never start a flight), still before NettyWriteResponseFilter
+    private static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER + 1;
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("adapt.gateway.singleflight.inflight", inFlight, Map::size)
+                .description("Upstream calls currently shared by coalesced requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseCache.keyOf(exchange.getRequest());
+        Sinks.One<SharedResponse> flight = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            return existing.asMono()
+                    .timeout(config.getMaxWait())
+                    .flatMap(shared -> {
+                        record("follower");
+                        return write(exchange.getResponse(), shared);
+                    })
+                    .onErrorResume(error -> {
+                        record("fallback");
+                        return chain.filter(exchange);
+                    });
+        }
+
+        record("leader");
+        return chain.filter(exchange.mutate().response(new LeaderResponse(exchange.getResponse(), key, flight)).build())
+                .doFinally(signal -> {
+                    // No body was written (error, cancel, empty completion): release the waiters
+                    if (inFlight.remove(key, flight)) {
+                        flight.tryEmitError(new IllegalStateException("Leader request ended without a response"));
+                    }
+                });
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().set("X-Single-Flight", "SHARED");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    /** role is one of leader, follower, fallback; hit rate = follower / (leader + follower) */
+    private void record(String role) {
+        meterRegistry.counter("adapt.gateway.singleflight.requests", "role", role).increment();
+    }
+
+    /**
+     * Buffers the leader's upstream body, publishes it to the waiters, then writes it to the leader's client.
+     * The key is removed before publishing so requests arriving afterwards start a new flight.
+     */
+    private class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Sinks.One<SharedResponse> flight;
+
+        LeaderResponse(ServerHttpResponse delegate, String key, Sinks.One<SharedResponse> flight) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.putAll(getHeaders());
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        headers.remove(HttpHeaders.CONNECTION);
+                        headers.remove(HttpHeaders.SET_COOKIE);
+                        if (inFlight.remove(key, flight)) {
+                            flight.tryEmitValue(new SharedResponse(getStatusCode(), headers, bytes));
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    public static class Config {
+
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
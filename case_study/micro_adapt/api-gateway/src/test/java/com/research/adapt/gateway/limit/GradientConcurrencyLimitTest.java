@@ -0,0 +1,67 @@
+package com.research.adapt.gateway.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The limit follows latency without ever shedding a steady, healthy load
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 500, 1.5, 0.2, 0.9, 10, 600);
+
+    @Test
+    void steadyLatencyAtFullUseNeverDropsTheLimit() {
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            lowest = Math.min(lowest, limit.getLimit());
+            saturateAndRelease(RTT);
+        }
+        assertThat(lowest).isGreaterThanOrEqualTo(20);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void queueingShrinksTheLimit() {
+        for (int i = 0; i < 2_000; i++) {
+            saturateAndRelease(RTT);
+        }
+        int grown = limit.getLimit();
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(RTT * 4);
+        }
+        assertThat(limit.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void idleRouteDoesNotGrow() {
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(RTT, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void failuresBackOffMultiplicatively() {
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.release(RTT, true);
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    /** Fills the limit, then completes one request while the rest are still in flight */
+    private void saturateAndRelease(long rttNanos) {
+        while (limit.tryAcquire()) {
+            // admit up to the limit
+        }
+        limit.release(rttNanos, false);
+        while (limit.getInflight() > 0) {
+            limit.releaseWithoutSample();
+        }
+    }
+}
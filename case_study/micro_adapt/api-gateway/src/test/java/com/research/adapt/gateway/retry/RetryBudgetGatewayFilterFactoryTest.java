@@ -0,0 +1,115 @@
+package com.research.adapt.gateway.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A request is sent at most 1 + retries times, and every retry spends exactly one budget token
+ */
+class RetryBudgetGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Test
+    void alwaysFailingChainIsRetriedExactlyRetriesTimes() {
+        GatewayFilter filter = filter(config(3, 10));
+        GatewayFilterChain failing = exchange -> Mono.defer(() -> {
+            invocations.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        });
+
+        StepVerifier.create(filter.filter(get(), failing))
+                .expectError(IOException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(invocations).hasValue(4);
+        assertThat(attempts("allowed")).isEqualTo(3.0);
+    }
+
+    @Test
+    void alwaysUnavailableChainIsRetriedExactlyRetriesTimes() {
+        GatewayFilter filter = filter(config(3, 10));
+        GatewayFilterChain unavailable = exchange -> Mono.fromRunnable(() -> {
+            invocations.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        StepVerifier.create(filter.filter(get(), unavailable))
+                .verifyComplete();
+
+        assertThat(invocations).hasValue(4);
+        assertThat(attempts("allowed")).isEqualTo(3.0);
+    }
+
+    @Test
+    void errorFromRetryAfterStatusIsNotRetriedAgainByEnclosingAttempt() {
+        GatewayFilter filter = filter(config(3, 10));
+        GatewayFilterChain unavailableThenFailing = exchange -> Mono.defer(() -> {
+            if (invocations.incrementAndGet() == 1) {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return Mono.empty();
+            }
+            return Mono.error(new IOException("connection reset"));
+        });
+
+        StepVerifier.create(filter.filter(get(), unavailableThenFailing))
+                .expectError(IOException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(invocations).hasValue(4);
+        assertThat(attempts("allowed")).isEqualTo(3.0);
+    }
+
+    @Test
+    void exhaustedBudgetStopsRetrying() {
+        GatewayFilter filter = filter(config(3, 1));
+        GatewayFilterChain failing = exchange -> Mono.defer(() -> {
+            invocations.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        });
+
+        StepVerifier.create(filter.filter(get(), failing))
+                .expectError(IOException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(invocations).hasValue(2);
+        assertThat(attempts("allowed")).isEqualTo(1.0);
+        assertThat(attempts("denied")).isEqualTo(1.0);
+    }
+
+    private GatewayFilter filter(RetryBudgetGatewayFilterFactory.Config config) {
+        return new RetryBudgetGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    private static RetryBudgetGatewayFilterFactory.Config config(int retries, double initialTokens) {
+        RetryBudgetGatewayFilterFactory.Config config = new RetryBudgetGatewayFilterFactory.Config();
+        config.setRouteId("test");
+        config.setRetries(retries);
+        config.setInitialTokens(initialTokens);
+        config.setFirstBackoff(Duration.ofMillis(1));
+        config.setMaxBackoff(Duration.ofMillis(1));
+        return config;
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1"));
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.counter("adapt.gateway.retry.attempts", "route", "test", "outcome", outcome).count();
+    }
+}
@@ -1,5 +1,6 @@
 package com.research.adapt.billing.domain;
 
+import com.research.adapt.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 public class Invoice {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(name = "invoice_number", unique = true, nullable = false)
@@ -13,7 +13,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +22,7 @@ public class BillingService {
 
     private final InvoiceRepository invoiceRepository;
     private final BillingEventProducer eventProducer;
+    private final InvoiceNumberGenerator invoiceNumberGenerator;
 
     @Transactional
     public void generateInvoiceForOrder(PaymentCompleted event) {
@@ -38,7 +38,7 @@ public class BillingService {
             BigDecimal tax = amount.multiply(BigDecimal.valueOf(0.10)); // 10% tax
 
             Invoice invoice = Invoice.builder()
-                    .invoiceNumber("INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                    .invoiceNumber(invoiceNumberGenerator.nextInvoiceNumber())
                     .orderId(event.getOrderId())
                     .userId(event.getUserId())
                     .paymentId(event.getPaymentId())
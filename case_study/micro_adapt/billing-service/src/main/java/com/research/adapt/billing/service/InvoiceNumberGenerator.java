@@ -0,0 +1,75 @@
+package com.research.adapt.billing.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Block-allocated invoice numbers
+ * Each instance reserves a block of numbers with a single nextval() on a shared
+ * database sequence whose INCREMENT equals the block size, then hands them out from memory.
+ * The sequence itself is created by the schema migrations.
+ * Blocks never overlap, so numbers are unique across billing-service replicas,
+ * monotonic within an instance, and the database is hit once per block rather than per invoice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceNumberGenerator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${adapt.billing.invoice-number.sequence:invoice_number_seq}")
+    private String sequenceName;
+
+    @Value("${adapt.billing.invoice-number.block-size:100}")
+    private int requestedBlockSize;
+
+    @Value("${adapt.billing.invoice-number.prefix:INV-}")
+    private String prefix;
+
+    @Value("${adapt.billing.invoice-number.digits:10}")
+    private int digits;
+
+    private long blockSize;
+    private long next;
+    private long blockEnd;
+
+    @PostConstruct
+    void readBlockSize() {
+        // The sequence is created by migration V1__create_invoices.sql.
+        // Its increment is authoritative: replicas configured with a different
+        // block size must still carve out the same non-overlapping ranges.
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, sequenceName);
+        blockSize = increment != null ? increment : requestedBlockSize;
+        if (blockSize != requestedBlockSize) {
+            log.warn("Sequence {} increments by {}, ignoring configured block size {}",
+                    sequenceName, blockSize, requestedBlockSize);
+        }
+    }
+
+    public String nextInvoiceNumber() {
+        long value = nextValue();
+        String number = Long.toString(value);
+        StringBuilder invoiceNumber = new StringBuilder(prefix.length() + Math.max(digits, number.length()))
+                .append(prefix);
+        for (int i = number.length(); i < digits; i++) {
+            invoiceNumber.append('0');
+        }
+        return invoiceNumber.append(number).toString();
+    }
+
+    private synchronized long nextValue() {
+        if (next >= blockEnd) {
+            Long blockStart = jdbcTemplate.queryForObject("SELECT nextval('" + sequenceName + "')", Long.class);
+            next = blockStart;
+            blockEnd = blockStart + blockSize;
+            log.debug("Allocated invoice number block [{}, {})", next, blockEnd);
+        }
+        return next++;
+    }
+}
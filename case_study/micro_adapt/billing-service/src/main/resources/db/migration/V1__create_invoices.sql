@@ -0,0 +1,24 @@
+-- Billing service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+
+CREATE TABLE IF NOT EXISTS invoices (
+    id             BIGINT         NOT NULL PRIMARY KEY,
+    invoice_number VARCHAR(255)   NOT NULL UNIQUE,
+    order_id       BIGINT         NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    payment_id     BIGINT,
+    amount         NUMERIC(10, 2) NOT NULL,
+    tax            NUMERIC(10, 2),
+    total_amount   NUMERIC(10, 2) NOT NULL,
+    status         VARCHAR(255)   NOT NULL,
+    issue_date     TIMESTAMP(6)   NOT NULL,
+    due_date       TIMESTAMP(6),
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE invoices ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Block-allocated invoice numbers (InvoiceNumberGenerator): one nextval() reserves a whole block
+CREATE SEQUENCE IF NOT EXISTS ${invoice_number_sequence} START WITH 1 INCREMENT BY ${invoice_number_block_size};
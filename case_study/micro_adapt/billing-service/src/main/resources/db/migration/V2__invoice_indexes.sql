@@ -0,0 +1,6 @@
+-- InvoiceRepository.findByOrderId and existsByOrderId (idempotency check on every payment event)
+-- INCLUDE (id) makes the exists probe an index-only scan
+CREATE INDEX IF NOT EXISTS idx_invoices_order_id ON invoices (order_id) INCLUDE (id);
+
+-- InvoiceRepository.findByUserId
+CREATE INDEX IF NOT EXISTS idx_invoices_user_id ON invoices (user_id);
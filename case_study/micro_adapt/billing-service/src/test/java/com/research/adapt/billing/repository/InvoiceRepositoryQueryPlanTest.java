@@ -0,0 +1,69 @@
+package com.research.adapt.billing.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every InvoiceRepository finder must be served by an index from V1/V2
+ * 20k invoices, one per order, over 2k users
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class InvoiceRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @BeforeEach
+    void loadInvoices() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO invoices (id, invoice_number, order_id, user_id, amount, total_amount, status, issue_date, created_at)
+                SELECT n, 'INV-' || n, n, n % 2000, 10.00, 11.00, 'ISSUED', now(), now()
+                FROM generate_series(1, 20000) n""");
+        jdbc.execute("ANALYZE invoices");
+        recorder.reset();
+    }
+
+    @Test
+    void findByOrderIdUsesIndex() {
+        assertThat(invoiceRepository.findByOrderId(4242L)).isPresent();
+        recorder.assertNoSequentialScans("InvoiceRepository.findByOrderId");
+    }
+
+    @Test
+    void findByUserIdUsesIndex() {
+        assertThat(invoiceRepository.findByUserId(42L)).hasSize(10);
+        recorder.assertNoSequentialScans("InvoiceRepository.findByUserId");
+    }
+
+    @Test
+    void findByInvoiceNumberUsesIndex() {
+        assertThat(invoiceRepository.findByInvoiceNumber("INV-4242")).isPresent();
+        recorder.assertNoSequentialScans("InvoiceRepository.findByInvoiceNumber");
+    }
+
+    @Test
+    void existsByOrderIdUsesIndex() {
+        assertThat(invoiceRepository.existsByOrderId(4242L)).isTrue();
+        recorder.assertNoSequentialScans("InvoiceRepository.existsByOrderId");
+    }
+}
@@ -1,5 +1,6 @@
 package com.research.adapt.inventory.domain;
 
+import com.research.adapt.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -20,7 +21,7 @@ import java.time.LocalDateTime;
 public class InventoryReservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(name = "order_id", nullable = false)
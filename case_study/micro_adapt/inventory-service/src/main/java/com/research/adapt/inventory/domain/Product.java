@@ -1,5 +1,6 @@
 package com.research.adapt.inventory.domain;
 
+import com.research.adapt.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -21,7 +22,7 @@ import java.time.LocalDateTime;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false)
@@ -82,7 +82,7 @@ public class InventoryService {
                         .quantity(orderItem.getQuantity())
                         .build());
 
-                log.info("Reserved {} units of product {} for order {}",
+                log.debug("Reserved {} units of product {} for order {}",
                         orderItem.getQuantity(), orderItem.getProductId(), event.getOrderId());
             }
 
@@ -174,7 +174,7 @@ public class InventoryService {
             reservation.setStatus(InventoryReservation.ReservationStatus.CANCELLED);
             reservationRepository.save(reservation);
 
-            log.info("Released {} units of product {} for order {}",
+            log.debug("Released {} units of product {} for order {}",
                     reservation.getQuantity(), reservation.getProductId(), orderId);
         }
     }
@@ -202,7 +202,7 @@ public class InventoryService {
             reservation.setStatus(InventoryReservation.ReservationStatus.CONFIRMED);
             reservationRepository.save(reservation);
 
-            log.info("Confirmed {} units of product {} for order {}",
+            log.debug("Confirmed {} units of product {} for order {}",
                     reservation.getQuantity(), reservation.getProductId(), orderId);
         }
     }
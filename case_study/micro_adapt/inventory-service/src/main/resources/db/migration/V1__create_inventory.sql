@@ -0,0 +1,28 @@
+-- Inventory service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+
+CREATE TABLE IF NOT EXISTS products (
+    id                BIGINT         NOT NULL PRIMARY KEY,
+    name              VARCHAR(255)   NOT NULL,
+    description       TEXT,
+    price             NUMERIC(10, 2) NOT NULL,
+    stock_quantity    INTEGER        NOT NULL,
+    reserved_quantity INTEGER        NOT NULL,
+    sku               VARCHAR(255)   NOT NULL UNIQUE,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS inventory_reservations (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    order_id   BIGINT       NOT NULL,
+    product_id BIGINT       NOT NULL,
+    quantity   INTEGER      NOT NULL,
+    status     VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE inventory_reservations ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,9 @@
+-- InventoryReservationRepository.findByOrderId and findByOrderIdAndStatus (compensation path)
+CREATE INDEX IF NOT EXISTS idx_reservations_order_id_status ON inventory_reservations (order_id, status);
+
+-- InventoryReservationRepository.findByOrderIdAndProductId
+CREATE INDEX IF NOT EXISTS idx_reservations_order_id_product_id ON inventory_reservations (order_id, product_id);
+
+-- ProductRepository.findAvailableProducts: partial index over the rows the predicate keeps
+CREATE INDEX IF NOT EXISTS idx_products_available ON products (id)
+    WHERE stock_quantity - reserved_quantity > 0;
@@ -0,0 +1,84 @@
+package com.research.adapt.inventory.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import com.research.adapt.inventory.domain.InventoryReservation.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every ProductRepository and InventoryReservationRepository finder must be served by an index
+ * 10k products of which 1% still have unreserved stock, 30k reservations over 10k orders
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class InventoryRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @BeforeEach
+    void loadCatalogue() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO products (id, name, price, stock_quantity, reserved_quantity, sku, created_at)
+                SELECT n, 'product-' || n, 9.99, 10, CASE WHEN n % 100 = 0 THEN 5 ELSE 10 END, 'SKU-' || n, now()
+                FROM generate_series(1, 10000) n""");
+        jdbc.update("""
+                INSERT INTO inventory_reservations (id, order_id, product_id, quantity, status, created_at)
+                SELECT n, (n + 2) / 3, n % 10000 + 1, 1, CASE WHEN n % 2 = 0 THEN 'RESERVED' ELSE 'CONFIRMED' END, now()
+                FROM generate_series(1, 30000) n""");
+        jdbc.execute("ANALYZE products");
+        jdbc.execute("ANALYZE inventory_reservations");
+        recorder.reset();
+    }
+
+    @Test
+    void findBySkuUsesIndex() {
+        assertThat(productRepository.findBySku("SKU-4242")).isPresent();
+        recorder.assertNoSequentialScans("ProductRepository.findBySku");
+    }
+
+    @Test
+    void findAvailableProductsUsesPartialIndex() {
+        assertThat(productRepository.findAvailableProducts()).hasSize(100);
+        recorder.assertNoSequentialScans("ProductRepository.findAvailableProducts");
+    }
+
+    @Test
+    void findByOrderIdUsesIndex() {
+        assertThat(reservationRepository.findByOrderId(42L)).hasSize(3);
+        recorder.assertNoSequentialScans("InventoryReservationRepository.findByOrderId");
+    }
+
+    @Test
+    void findByOrderIdAndStatusUsesIndex() {
+        assertThat(reservationRepository.findByOrderIdAndStatus(42L, ReservationStatus.RESERVED)).isNotEmpty();
+        recorder.assertNoSequentialScans("InventoryReservationRepository.findByOrderIdAndStatus");
+    }
+
+    @Test
+    void findByOrderIdAndProductIdUsesIndex() {
+        assertThat(reservationRepository.findByOrderIdAndProductId(42L, 125L)).isPresent();
+        recorder.assertNoSequentialScans("InventoryReservationRepository.findByOrderIdAndProductId");
+    }
+}
@@ -0,0 +1,61 @@
+package com.research.adapt.notification.template;
+
+import com.research.adapt.notification.domain.NotificationType;
+import com.research.adapt.notification.service.PendingNotification;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering cost of one invoice notification: the original string concatenation vs precompiled templates.
+ * Run with -prof gc (the default jmh.args) and compare gc.alloc.rate.norm, i.e. bytes allocated per notification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationTemplateBenchmark {
+
+    private NotificationTemplates templates;
+    private long userId;
+    private long orderId;
+    private String invoiceNumber;
+
+    @Setup
+    public void setUp() {
+        NotificationTemplateProperties properties = new NotificationTemplateProperties();
+        properties.getRecipient().put(NotificationType.EMAIL, "user{userId}@example.com");
+        NotificationTemplateProperties.Text text = new NotificationTemplateProperties.Text();
+        text.setSubject("Invoice Ready - {invoiceNumber}");
+        text.setBody("Invoice {invoiceNumber} for order #{orderId} is ready.");
+        Map<NotificationType, NotificationTemplateProperties.Text> byType = new EnumMap<>(NotificationType.class);
+        byType.put(NotificationType.EMAIL, text);
+        properties.getMessages().put(TemplateKey.INVOICE_READY, byType);
+
+        templates = new NotificationTemplates(properties);
+        userId = 4217L;
+        orderId = 918273L;
+        invoiceNumber = "INV-20240001";
+    }
+
+    @Benchmark
+    public PendingNotification concatenation() {
+        return PendingNotification.builder()
+                .userId(userId)
+                .orderId(orderId)
+                .type(NotificationType.EMAIL)
+                .recipient("user" + userId + "@example.com")
+                .subject("Invoice Ready - " + invoiceNumber)
+                .message("Invoice " + invoiceNumber + " for order #" + orderId + " is ready.")
+                .build();
+    }
+
+    @Benchmark
+    public PendingNotification precompiledTemplate() {
+        return templates.render(TemplateKey.INVOICE_READY, NotificationType.EMAIL, userId, orderId, invoiceNumber);
+    }
+}
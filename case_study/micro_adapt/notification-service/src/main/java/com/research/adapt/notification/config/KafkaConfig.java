@@ -18,6 +18,11 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}") private String bootstrapServers;
     @Value("${spring.kafka.properties.schema.registry.url}") private String schemaRegistryUrl;
     @Value("${spring.kafka.consumer.group-id}") private String groupId;
+    // Tuning defaults; config-server can change them at runtime (adapt-common RuntimeTuningApplier)
+    @Value("${adapt.tuning.listener.concurrency:3}") private int listenerConcurrency;
+    @Value("${adapt.tuning.listener.max-poll-records:500}") private int maxPollRecords;
+    @Value("${adapt.tuning.producer.linger-ms:0}") private int lingerMs;
+    @Value("${adapt.tuning.producer.batch-size:16384}") private int batchSize;
 
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
@@ -25,6 +30,8 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
         configProps.put("schema.registry.url", schemaRegistryUrl);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -41,6 +48,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         configProps.put("schema.registry.url", schemaRegistryUrl);
         configProps.put("specific.avro.reader", true);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
@@ -51,7 +59,7 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
+        factory.setConcurrency(listenerConcurrency);
         return factory;
     }
 }
@@ -0,0 +1,51 @@
+package com.research.adapt.notification.domain;
+import com.research.adapt.common.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of a notification held in the coalescing buffer, removed when its digest is written.
+ */
+@Entity
+@Table(name = "pending_notifications")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BufferedNotification {
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    /** Node id of the replica that buffered it; only that replica loads it back after a restart */
+    @Column(name = "owner_node", nullable = false)
+    private Integer ownerNode;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,7 +1,11 @@
 package com.research.adapt.notification.domain;
+import com.research.adapt.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "notifications")
@@ -12,15 +16,23 @@ import java.time.LocalDateTime;
 @Builder
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // Set only when the notification is about a single order; see orderIds
     @Column(name = "order_id")
     private Long orderId;
 
+    @ElementCollection
+    @CollectionTable(name = "notification_orders", joinColumns = @JoinColumn(name = "notification_id"))
+    @Column(name = "order_id", nullable = false)
+    @BatchSize(size = 50)
+    @Builder.Default
+    private Set<Long> orderIds = new LinkedHashSet<>();
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private NotificationType type;
@@ -20,6 +20,8 @@ public class OrderEventListener {
             notificationService.sendOrderConfirmationNotification(event);
         } catch (Exception e) {
             log.error("Failed to send order confirmation notification", e);
+            // Rethrown so the container's error handler redelivers the event instead of committing past it
+            throw e;
         }
     }
 
@@ -30,6 +32,7 @@ public class OrderEventListener {
             notificationService.sendInvoiceNotification(event);
         } catch (Exception e) {
             log.error("Failed to send invoice notification", e);
+            throw e;
         }
     }
 }
@@ -0,0 +1,10 @@
+package com.research.adapt.notification.repository;
+import com.research.adapt.notification.domain.BufferedNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface BufferedNotificationRepository extends JpaRepository<BufferedNotification, Long> {
+    List<BufferedNotification> findByOwnerNode(Integer ownerNode);
+}
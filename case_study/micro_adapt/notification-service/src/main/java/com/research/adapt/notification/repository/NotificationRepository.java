@@ -1,11 +1,16 @@
 package com.research.adapt.notification.repository;
 import com.research.adapt.notification.domain.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserId(Long userId);
-    List<Notification> findByOrderId(Long orderId);
+
+    // A digest covers several orders, so the match is on notification_orders rather than order_id
+    @Query("select distinct n from Notification n join n.orderIds o where o = :orderId")
+    List<Notification> findByOrderId(@Param("orderId") Long orderId);
 }
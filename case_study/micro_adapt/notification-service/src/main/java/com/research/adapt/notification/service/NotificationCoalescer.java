@@ -0,0 +1,238 @@
+package com.research.adapt.notification.service;
+import com.research.adapt.common.id.TimeOrderedIds;
+import com.research.adapt.notification.domain.BufferedNotification;
+import com.research.adapt.notification.repository.BufferedNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalescing stage in front of {@link NotificationDispatcher}.
+ * Notifications are buffered per userId for a configurable window and flushed as one digest,
+ * so a burst of order events for the same user results in a single send and a single row.
+ * Each buffered notification is written to pending_notifications before submit returns, i.e. before the listener
+ * lets its Kafka offset be committed, and deleted together with the digest; rows left by a crash are loaded back
+ * on startup, before the listener containers start consuming. Each row carries the node id of the replica that
+ * wrote it, and a replica only loads back its own, so replicas never send each other's notifications.
+ * Delivery therefore stays at-least-once. A digest that fails to send is buffered again.
+ * The durable buffer costs an insert per event and one batched delete per digest: coalescing cuts sends and
+ * notification rows, not total writes.
+ * Digests are sent on a bounded pool (send-threads), not on the flush thread, so one slow send does not hold up
+ * the rest; when its queue is full the submitting thread sends itself, slowing the listener instead of piling up.
+ * Reports received vs dispatched counts and their ratio under adapt.notification.coalescing.*.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationCoalescer implements SmartLifecycle {
+    private final NotificationDispatcher dispatcher;
+    private final BufferedNotificationRepository bufferedRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${adapt.notification.coalescing.enabled:true}") private boolean enabled;
+    @Value("${adapt.notification.coalescing.window-ms:5000}") private long windowMs;
+    @Value("${adapt.notification.coalescing.max-entries:20}") private int maxEntries;
+    @Value("${adapt.notification.coalescing.send-threads:4}") private int sendThreads;
+    @Value("${adapt.notification.coalescing.send-queue:1000}") private int sendQueue;
+
+    private final Map<Long, Digest> buffers = new ConcurrentHashMap<>();
+    private Counter received;
+    private Counter dispatched;
+    private volatile boolean running;
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    void registerMetrics() {
+        received = Counter.builder("adapt.notification.coalescing.received")
+                .description("Notifications submitted to the coalescing stage")
+                .register(meterRegistry);
+        dispatched = Counter.builder("adapt.notification.coalescing.dispatched")
+                .description("Messages actually sent after coalescing")
+                .register(meterRegistry);
+        Gauge.builder("adapt.notification.coalescing.ratio", this, NotificationCoalescer::coalescingRatio)
+                .description("Notifications received per message sent")
+                .register(meterRegistry);
+        Gauge.builder("adapt.notification.coalescing.pending", buffers, Map::size)
+                .description("Users with a digest waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("adapt.notification.coalescing.sending", this, NotificationCoalescer::sending)
+                .description("Flushed digests queued or being sent")
+                .register(meterRegistry);
+    }
+
+    public void submit(PendingNotification pending) {
+        received.increment();
+        if (!enabled || windowMs <= 0) {
+            // Sent before the offset is committed; a failure propagates to the listener
+            dispatcher.dispatch(List.of(pending));
+            dispatched.increment();
+            return;
+        }
+
+        // Throws if the row cannot be written, so the listener fails and the event is redelivered
+        BufferedNotification row = bufferedRepository.save(BufferedNotification.builder()
+                .ownerNode(TimeOrderedIds.generator().getNodeId())
+                .userId(pending.getUserId())
+                .orderId(pending.getOrderId())
+                .type(pending.getType())
+                .recipient(pending.getRecipient())
+                .subject(pending.getSubject())
+                .message(pending.getMessage())
+                .build());
+        buffer(pending.toBuilder().bufferId(row.getId()).build(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueue),
+                task -> new Thread(task, "notification-sender-" + threads.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        recover();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flushAll();
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Notification sends still running at shutdown; their rows stay in pending_notifications");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Before the listener containers (Integer.MAX_VALUE - 100) start, and stopped only after they have
+        return Integer.MAX_VALUE - 200;
+    }
+
+    /** Loads notifications a crash of this replica left in pending_notifications back into the buffer */
+    void recover() {
+        if (!enabled || windowMs <= 0) {
+            return;
+        }
+        List<BufferedNotification> rows = bufferedRepository.findByOwnerNode(TimeOrderedIds.generator().getNodeId());
+        long now = System.currentTimeMillis();
+        for (BufferedNotification row : rows) {
+            buffer(PendingNotification.builder()
+                    .bufferId(row.getId())
+                    .userId(row.getUserId())
+                    .orderId(row.getOrderId())
+                    .type(row.getType())
+                    .recipient(row.getRecipient())
+                    .subject(row.getSubject())
+                    .message(row.getMessage())
+                    .build(), now);
+        }
+        if (!rows.isEmpty()) {
+            log.info("Recovered {} buffered notification(s) from a previous run", rows.size());
+        }
+    }
+
+    private void buffer(PendingNotification pending, long now) {
+        List<List<PendingNotification>> full = new ArrayList<>(1);
+        buffers.compute(pending.getUserId(), (userId, current) -> {
+            Digest next = current != null ? current : new Digest(now);
+            next.entries.add(pending);
+            if (next.entries.size() >= maxEntries) {
+                full.add(next.entries);
+                return null;
+            }
+            return next;
+        });
+        if (!full.isEmpty()) {
+            dispatch(pending.getUserId(), full.get(0));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${adapt.notification.coalescing.flush-interval-ms:1000}")
+    public void flushExpired() {
+        long now = System.currentTimeMillis();
+        buffers.forEach((userId, digest) -> {
+            if (now - digest.openedAt >= windowMs && buffers.remove(userId, digest)) {
+                dispatch(userId, digest.entries);
+            }
+        });
+    }
+
+    void flushAll() {
+        buffers.forEach((userId, digest) -> {
+            if (buffers.remove(userId, digest)) {
+                dispatch(userId, digest.entries);
+            }
+        });
+    }
+
+    private void dispatch(Long userId, List<PendingNotification> batch) {
+        senders.execute(() -> send(userId, batch));
+    }
+
+    private void send(Long userId, List<PendingNotification> batch) {
+        try {
+            dispatcher.dispatch(batch);
+            dispatched.increment();
+        } catch (Exception e) {
+            // Still in pending_notifications: try again in the next window
+            log.error("Failed to send {} coalesced notification(s) for user {}, retrying", batch.size(), userId, e);
+            buffers.merge(userId, new Digest(System.currentTimeMillis(), batch), (current, retry) -> {
+                current.entries.addAll(retry.entries);
+                return current;
+            });
+        }
+    }
+
+    private int sending() {
+        ThreadPoolExecutor current = senders;
+        return current == null ? 0 : current.getActiveCount() + current.getQueue().size();
+    }
+
+    private double coalescingRatio() {
+        double sent = dispatched.count();
+        return sent == 0 ? 0 : received.count() / sent;
+    }
+
+    /**
+     * Entries are only mutated inside {@code buffers.compute}/{@code merge}, i.e. while the digest is still mapped,
+     * and only read after it has been removed from the map.
+     */
+    private static final class Digest {
+        private final long openedAt;
+        private final List<PendingNotification> entries;
+
+        private Digest(long openedAt) {
+            this(openedAt, List.of());
+        }
+
+        private Digest(long openedAt, List<PendingNotification> entries) {
+            this.openedAt = openedAt;
+            this.entries = new ArrayList<>(entries);
+        }
+    }
+}
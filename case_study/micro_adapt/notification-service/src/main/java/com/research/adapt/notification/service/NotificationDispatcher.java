@@ -0,0 +1,84 @@
+package com.research.adapt.notification.service;
+import com.research.adapt.notification.domain.Notification;
+import com.research.adapt.notification.domain.NotificationStatus;
+import com.research.adapt.notification.event.NotificationEventProducer;
+import com.research.adapt.notification.repository.BufferedNotificationRepository;
+import com.research.adapt.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sends one notification for a batch of pending notifications of the same user.
+ * A batch of one is sent as-is; larger batches are merged into a single digest
+ * so that one email is sent and one row is written. The batch's buffered rows are deleted in the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+    private final NotificationRepository notificationRepository;
+    private final BufferedNotificationRepository bufferedRepository;
+    private final NotificationEventProducer eventProducer;
+
+    @Transactional
+    public void dispatch(List<PendingNotification> batch) {
+        PendingNotification first = batch.get(0);
+        Set<Long> orderIds = new LinkedHashSet<>();
+        List<Long> bufferIds = new ArrayList<>();
+        for (PendingNotification pending : batch) {
+            if (pending.getOrderId() != null) orderIds.add(pending.getOrderId());
+            if (pending.getBufferId() != null) bufferIds.add(pending.getBufferId());
+        }
+
+        Notification notification = Notification.builder()
+                .userId(first.getUserId())
+                .orderId(orderIds.size() == 1 ? orderIds.iterator().next() : null)
+                .orderIds(new LinkedHashSet<>(orderIds))
+                .type(first.getType())
+                .recipient(first.getRecipient())
+                .subject(batch.size() == 1 ? first.getSubject() : digestSubject(batch))
+                .message(batch.size() == 1 ? first.getMessage() : digestMessage(batch))
+                .status(simulateEmailSend() ? NotificationStatus.SENT : NotificationStatus.FAILED)
+                .sentAt(LocalDateTime.now())
+                .build();
+
+        notificationRepository.save(notification);
+        if (!bufferIds.isEmpty()) {
+            bufferedRepository.deleteAllByIdInBatch(bufferIds);
+        }
+        log.info("Sent {} notification(s) to user {} as one message", batch.size(), first.getUserId());
+        if (notification.getStatus() == NotificationStatus.SENT) {
+            // NotificationSent is per order, so downstream consumers still see every order covered by the digest
+            for (Long orderId : orderIds) {
+                eventProducer.publishNotificationSent(first.getUserId(), orderId, first.getType().name(), first.getRecipient());
+            }
+        }
+    }
+
+    private String digestSubject(List<PendingNotification> batch) {
+        return "Your order updates (" + batch.size() + ")";
+    }
+
+    private String digestMessage(List<PendingNotification> batch) {
+        StringBuilder message = new StringBuilder();
+        for (PendingNotification pending : batch) {
+            if (message.length() > 0) message.append('\n');
+            message.append("- ").append(Objects.toString(pending.getSubject(), ""))
+                    .append(": ").append(pending.getMessage());
+        }
+        return message.toString();
+    }
+
+    private boolean simulateEmailSend() {
+        try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        return true;
+    }
+}
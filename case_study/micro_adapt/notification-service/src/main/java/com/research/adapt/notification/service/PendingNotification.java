@@ -0,0 +1,20 @@
+package com.research.adapt.notification.service;
+import com.research.adapt.notification.domain.NotificationType;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A rendered notification waiting in the coalescing buffer.
+ * Nothing is sent until the buffer for its user is flushed; bufferId is its row in pending_notifications.
+ */
+@Value
+@Builder(toBuilder = true)
+public class PendingNotification {
+    Long bufferId;
+    Long userId;
+    Long orderId;
+    NotificationType type;
+    String recipient;
+    String subject;
+    String message;
+}
@@ -0,0 +1,53 @@
+package com.research.adapt.notification.template;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal and placeholder segments.
+ * Rendering only appends to the caller's buffer; the returned String is the only allocation.
+ */
+public final class NotificationTemplate {
+    private final String source;
+    private final String[] literals;
+    private final TemplateVariable[] variables;
+
+    private NotificationTemplate(String source, String[] literals, TemplateVariable[] variables) {
+        this.source = source;
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    public static NotificationTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateVariable> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf('{', position);
+            if (open < 0) break;
+            int close = source.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at index " + open + " in template: " + source);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(TemplateVariable.fromPlaceholder(source.substring(open + 1, close)));
+            position = close + 1;
+        }
+        literals.add(source.substring(position));
+        return new NotificationTemplate(source, literals.toArray(new String[0]), variables.toArray(new TemplateVariable[0]));
+    }
+
+    public String render(StringBuilder buffer, TemplateArguments arguments) {
+        buffer.setLength(0);
+        for (int i = 0; i < variables.length; i++) {
+            buffer.append(literals[i]);
+            variables[i].appendTo(buffer, arguments);
+        }
+        buffer.append(literals[variables.length]);
+        return buffer.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,24 @@
+package com.research.adapt.notification.template;
+import com.research.adapt.notification.domain.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Raw template sources from adapt.notification.templates, compiled by {@link NotificationTemplates} at startup.
+ */
+@Component
+@ConfigurationProperties(prefix = "adapt.notification.templates")
+@Data
+public class NotificationTemplateProperties {
+    private Map<NotificationType, String> recipient = new EnumMap<>(NotificationType.class);
+    private Map<TemplateKey, Map<NotificationType, Text>> messages = new EnumMap<>(TemplateKey.class);
+
+    @Data
+    public static class Text {
+        private String subject;
+        private String body;
+    }
+}
@@ -0,0 +1,60 @@
+package com.research.adapt.notification.template;
+import com.research.adapt.notification.domain.NotificationType;
+import com.research.adapt.notification.service.PendingNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-type notification templates, parsed once at startup.
+ * Each thread renders into its own reusable buffer and argument holder,
+ * so steady-state rendering allocates nothing but the resulting strings.
+ */
+@Component
+@Slf4j
+public class NotificationTemplates {
+    private static final ThreadLocal<RenderContext> CONTEXT = ThreadLocal.withInitial(RenderContext::new);
+
+    private final Map<NotificationType, NotificationTemplate> recipients = new EnumMap<>(NotificationType.class);
+    private final Map<TemplateKey, Map<NotificationType, CompiledText>> messages = new EnumMap<>(TemplateKey.class);
+
+    public NotificationTemplates(NotificationTemplateProperties properties) {
+        properties.getRecipient().forEach((type, source) -> recipients.put(type, NotificationTemplate.compile(source)));
+        properties.getMessages().forEach((key, byType) -> {
+            Map<NotificationType, CompiledText> compiled = new EnumMap<>(NotificationType.class);
+            byType.forEach((type, text) -> compiled.put(type, new CompiledText(
+                    NotificationTemplate.compile(text.getSubject()),
+                    NotificationTemplate.compile(text.getBody()))));
+            messages.put(key, compiled);
+        });
+        log.info("Compiled {} recipient and {} message template sets", recipients.size(), messages.size());
+    }
+
+    public PendingNotification render(TemplateKey key, NotificationType type, long userId, long orderId, CharSequence invoiceNumber) {
+        CompiledText text = messages.getOrDefault(key, Map.of()).get(type);
+        NotificationTemplate recipient = recipients.get(type);
+        if (text == null || recipient == null) {
+            throw new IllegalStateException("No " + type + " template configured for " + key);
+        }
+
+        RenderContext context = CONTEXT.get();
+        TemplateArguments arguments = context.arguments.set(userId, orderId, invoiceNumber);
+        return PendingNotification.builder()
+                .userId(userId)
+                .orderId(orderId)
+                .type(type)
+                .recipient(recipient.render(context.buffer, arguments))
+                .subject(text.subject.render(context.buffer, arguments))
+                .message(text.body.render(context.buffer, arguments))
+                .build();
+    }
+
+    private record CompiledText(NotificationTemplate subject, NotificationTemplate body) {
+    }
+
+    private static final class RenderContext {
+        private final StringBuilder buffer = new StringBuilder(256);
+        private final TemplateArguments arguments = new TemplateArguments();
+    }
+}
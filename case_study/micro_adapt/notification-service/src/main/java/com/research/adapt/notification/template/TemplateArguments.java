@@ -0,0 +1,19 @@
+package com.research.adapt.notification.template;
+import lombok.Getter;
+
+/**
+ * Mutable argument holder reused by one thread across renders.
+ */
+@Getter
+public final class TemplateArguments {
+    private long userId;
+    private long orderId;
+    private CharSequence invoiceNumber = "";
+
+    public TemplateArguments set(long userId, long orderId, CharSequence invoiceNumber) {
+        this.userId = userId;
+        this.orderId = orderId;
+        this.invoiceNumber = invoiceNumber != null ? invoiceNumber : "";
+        return this;
+    }
+}
@@ -0,0 +1,4 @@
+package com.research.adapt.notification.template;
+public enum TemplateKey {
+    ORDER_CONFIRMATION, INVOICE_READY
+}
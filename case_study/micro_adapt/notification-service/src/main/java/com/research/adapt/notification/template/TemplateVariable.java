@@ -0,0 +1,37 @@
+package com.research.adapt.notification.template;
+import java.util.Arrays;
+
+/**
+ * Placeholders a template may reference as {@code {name}}.
+ * Values are appended straight into the render buffer, so numeric ids are never boxed or turned into temporary strings.
+ */
+public enum TemplateVariable {
+    USER_ID("userId"),
+    ORDER_ID("orderId"),
+    INVOICE_NUMBER("invoiceNumber");
+
+    private final String placeholder;
+
+    TemplateVariable(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    void appendTo(StringBuilder buffer, TemplateArguments arguments) {
+        switch (this) {
+            case USER_ID -> buffer.append(arguments.getUserId());
+            case ORDER_ID -> buffer.append(arguments.getOrderId());
+            case INVOICE_NUMBER -> buffer.append(arguments.getInvoiceNumber());
+        }
+    }
+
+    static TemplateVariable fromPlaceholder(String placeholder) {
+        return Arrays.stream(values())
+                .filter(variable -> variable.placeholder.equals(placeholder))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown template placeholder: {" + placeholder + "}"));
+    }
+}
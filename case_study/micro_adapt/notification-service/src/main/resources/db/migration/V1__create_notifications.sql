@@ -0,0 +1,19 @@
+-- Notification service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    user_id       BIGINT       NOT NULL,
+    order_id      BIGINT,
+    type          VARCHAR(255) NOT NULL,
+    recipient     VARCHAR(255) NOT NULL,
+    subject       VARCHAR(255) NOT NULL,
+    message       TEXT         NOT NULL,
+    status        VARCHAR(255) NOT NULL,
+    sent_at       TIMESTAMP(6),
+    error_message VARCHAR(255),
+    created_at    TIMESTAMP(6) NOT NULL
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,5 @@
+-- NotificationRepository.findByUserId
+CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON notifications (user_id);
+
+-- NotificationRepository.findByOrderId; digests spanning several orders store NULL, which is never queried
+CREATE INDEX IF NOT EXISTS idx_notifications_order_id ON notifications (order_id) WHERE order_id IS NOT NULL;
@@ -0,0 +1,28 @@
+-- Notifications waiting in the coalescing buffer (NotificationCoalescer). A row is written before the Kafka
+-- offset of its event is committed and deleted in the transaction that writes its digest, so a crash
+-- between the two loses nothing: the rows are loaded back into the buffer on startup.
+CREATE TABLE IF NOT EXISTS pending_notifications (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    order_id   BIGINT,
+    type       VARCHAR(255) NOT NULL,
+    recipient  VARCHAR(255) NOT NULL,
+    subject    VARCHAR(255),
+    message    TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Every order a notification covers; a digest spanning several orders has one row per order
+CREATE TABLE IF NOT EXISTS notification_orders (
+    notification_id BIGINT NOT NULL REFERENCES notifications (id),
+    order_id        BIGINT NOT NULL,
+    PRIMARY KEY (notification_id, order_id)
+);
+
+INSERT INTO notification_orders (notification_id, order_id)
+SELECT id, order_id FROM notifications WHERE order_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+-- NotificationRepository.findByOrderId now goes through notification_orders
+CREATE INDEX IF NOT EXISTS idx_notification_orders_order_id ON notification_orders (order_id);
+DROP INDEX IF EXISTS idx_notifications_order_id;
@@ -0,0 +1,11 @@
+-- Each replica recovers only the buffered notifications it wrote itself (NotificationCoalescer), so replicas
+-- never send each other's rows. The owner is the writer's time-ordered id node id (ADAPT_NODE_ID), which differs
+-- between replicas and stays the same across restarts of one.
+ALTER TABLE pending_notifications ADD COLUMN IF NOT EXISTS owner_node INTEGER;
+
+-- Rows written before this migration: the node id sits in bits 12..21 of their time-ordered id
+UPDATE pending_notifications SET owner_node = ((id >> 12) & 1023)::INTEGER WHERE owner_node IS NULL;
+
+ALTER TABLE pending_notifications ALTER COLUMN owner_node SET NOT NULL;
+
+-- No index: the table holds a few seconds of notifications and is read by owner once, at startup
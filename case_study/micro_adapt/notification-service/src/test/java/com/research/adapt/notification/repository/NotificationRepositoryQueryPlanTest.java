@@ -0,0 +1,72 @@
+package com.research.adapt.notification.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every NotificationRepository finder, and the orderIds collection it hands out, must be served by an index
+ * 20k notifications over 2k users; every tenth is a digest covering three orders
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class NotificationRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void loadNotifications() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO notifications (id, user_id, order_id, type, recipient, subject, message, status, created_at)
+                SELECT n, n % 2000, CASE WHEN n % 10 = 0 THEN NULL ELSE n END, 'EMAIL', 'user@example.com',
+                       'Order update', 'message', 'SENT', now()
+                FROM generate_series(1, 20000) n""");
+        jdbc.update("""
+                INSERT INTO notification_orders (notification_id, order_id)
+                SELECT n, n FROM generate_series(1, 20000) n WHERE n % 10 <> 0
+                UNION ALL
+                SELECT n, n + k FROM generate_series(10, 20000, 10) n, generate_series(100000, 100002) k""");
+        jdbc.execute("ANALYZE notifications");
+        jdbc.execute("ANALYZE notification_orders");
+        recorder.reset();
+    }
+
+    @Test
+    void findByUserIdUsesIndex() {
+        assertThat(notificationRepository.findByUserId(42L)).hasSize(10);
+        recorder.assertNoSequentialScans("NotificationRepository.findByUserId");
+    }
+
+    @Test
+    void findByOrderIdUsesIndex() {
+        assertThat(notificationRepository.findByOrderId(4242L)).hasSize(1);
+        recorder.assertNoSequentialScans("NotificationRepository.findByOrderId");
+    }
+
+    @Test
+    void findByOrderIdFindsDigests() {
+        assertThat(notificationRepository.findByOrderId(104241L))
+                .singleElement()
+                .satisfies(digest -> assertThat(digest.getOrderIds()).hasSize(3));
+        recorder.assertNoSequentialScans("NotificationRepository.findByOrderId (digest with orderIds)");
+    }
+}
@@ -1,14 +1,19 @@
 package com.research.adapt.order.controller;
 
+import com.research.adapt.order.dto.AdmissionDecision;
 import com.research.adapt.order.dto.CreateOrderRequest;
 import com.research.adapt.order.dto.OrderResponse;
+import com.research.adapt.order.service.AdmissionControl;
 import com.research.adapt.order.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,12 +24,29 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final AdmissionControl admissionControl;
 
+    /**
+     * Create an order, subject to admission control
+     * Rejections are 429 (per-user rate) or 503 (global rate, full queue, deadline) with Retry-After.
+     * X-Request-Timeout-Ms lets callers shorten how long the request may wait for admission.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("REST API: Creating order for user: {}", request.getUserId());
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                     @RequestHeader(value = "X-Request-Timeout-Ms", required = false) Long timeoutMs) {
+        AdmissionDecision admission = admissionControl.acquire(request.getUserId(), timeoutMs);
+        if (!admission.isAdmitted()) {
+            return ResponseEntity.status(admission.getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(admission.getRetryAfterSeconds()))
+                    .build();
+        }
+        try {
+            log.info("REST API: Creating order for user: {}", request.getUserId());
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            admissionControl.release(admission);
+        }
     }
 
     @GetMapping("/{id}")
@@ -34,6 +56,16 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Saga progress as server-sent events, replacing polling of GET /{id}
+     * The first event is the current status; the stream ends after a terminal step.
+     */
+    @GetMapping(value = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderProgress(@PathVariable Long id) {
+        log.info("REST API: Opening progress stream for order ID: {}", id);
+        return orderService.streamProgress(id);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<OrderResponse>> getOrdersByUserId(@PathVariable Long userId) {
         log.info("REST API: Fetching orders for user ID: {}", userId);
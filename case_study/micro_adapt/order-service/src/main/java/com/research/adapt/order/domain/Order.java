@@ -1,5 +1,6 @@
 package com.research.adapt.order.domain;
 
+import com.research.adapt.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -18,7 +19,7 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false)
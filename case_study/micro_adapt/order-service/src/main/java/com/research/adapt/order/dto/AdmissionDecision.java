@@ -0,0 +1,32 @@
+package com.research.adapt.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of admission control for one request
+ * Admitted requests hold a concurrency permit until released; rejected ones carry
+ * the status to answer with and a Retry-After hint in seconds.
+ */
+@Getter
+@AllArgsConstructor
+public class AdmissionDecision {
+
+    public enum Outcome {
+        ADMITTED,
+        USER_RATE_LIMITED,
+        GLOBAL_RATE_LIMITED,
+        QUEUE_FULL,
+        DEADLINE_EXCEEDED
+    }
+
+    private final Outcome outcome;
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+    private final long admittedAtNanos;
+
+    public boolean isAdmitted() {
+        return outcome == Outcome.ADMITTED;
+    }
+}
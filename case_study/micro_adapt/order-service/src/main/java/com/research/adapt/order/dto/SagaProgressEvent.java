@@ -0,0 +1,24 @@
+package com.research.adapt.order.dto;
+
+import com.research.adapt.order.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One saga transition pushed to progress subscribers
+ * status is set for the initial snapshot only; detail carries failure reasons and invoice numbers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaProgressEvent {
+
+    private Long orderId;
+    private SagaStep step;
+    private OrderStatus status;
+    private String detail;
+    private long timestamp;
+}
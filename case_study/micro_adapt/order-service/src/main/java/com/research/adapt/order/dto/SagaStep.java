@@ -0,0 +1,26 @@
+package com.research.adapt.order.dto;
+
+/**
+ * Steps of the order choreography as seen by a progress subscriber
+ * Terminal steps end the stream.
+ */
+public enum SagaStep {
+    ORDER_CREATED(false),
+    INVENTORY_RESERVED(false),
+    INVENTORY_FAILED(true),
+    PAYMENT_COMPLETED(false),
+    PAYMENT_FAILED(false),
+    ORDER_CONFIRMED(false),
+    ORDER_FAILED(true),
+    INVOICE_GENERATED(true);
+
+    private final boolean terminal;
+
+    SagaStep(boolean terminal) {
+        this.terminal = terminal;
+    }
+
+    public boolean isTerminal() {
+        return terminal;
+    }
+}
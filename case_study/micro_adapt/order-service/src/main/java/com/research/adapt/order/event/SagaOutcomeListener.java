@@ -0,0 +1,50 @@
+package com.research.adapt.order.event;
+
+import com.research.adapt.events.billing.InvoiceGenerated;
+import com.research.adapt.events.inventory.InventoryFailed;
+import com.research.adapt.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Event Listener for the events that end a saga outside the order service
+ * Records the outcome on the order, so a progress stream opened later still gets a terminal step
+ * from its snapshot instead of waiting for an event that was published before it subscribed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaOutcomeListener {
+
+    private final OrderService orderService;
+
+    @KafkaListener(
+            topics = "${adapt.kafka.topics.invoice-generated}",
+            groupId = "order-service-group",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void handleInvoiceGenerated(InvoiceGenerated event) {
+        log.info("Received InvoiceGenerated event for order ID: {}", event.getOrderId());
+        try {
+            orderService.completeOrder(event.getOrderId());
+        } catch (Exception e) {
+            log.error("Failed to complete order {} after invoicing", event.getOrderId(), e);
+        }
+    }
+
+    @KafkaListener(
+            topics = "${adapt.kafka.topics.inventory-failed}",
+            groupId = "order-service-group",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void handleInventoryFailed(InventoryFailed event) {
+        log.info("Received InventoryFailed event for order ID: {}", event.getOrderId());
+        try {
+            orderService.markInventoryFailed(event.getOrderId(), event.getReason());
+        } catch (Exception e) {
+            log.error("Failed to mark order {} as failed after inventory failure", event.getOrderId(), e);
+        }
+    }
+}
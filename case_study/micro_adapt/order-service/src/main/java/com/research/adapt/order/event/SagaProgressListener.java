@@ -0,0 +1,102 @@
+package com.research.adapt.order.event;
+
+import com.research.adapt.events.billing.InvoiceGenerated;
+import com.research.adapt.events.inventory.InventoryFailed;
+import com.research.adapt.events.inventory.InventoryReserved;
+import com.research.adapt.events.notification.NotificationSent;
+import com.research.adapt.events.order.OrderConfirmed;
+import com.research.adapt.events.order.OrderCreated;
+import com.research.adapt.events.order.OrderFailed;
+import com.research.adapt.events.payment.PaymentCompleted;
+import com.research.adapt.events.payment.PaymentFailed;
+import com.research.adapt.order.dto.SagaProgressEvent;
+import com.research.adapt.order.dto.SagaStep;
+import com.research.adapt.order.service.SagaProgressRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Event Listener feeding saga progress streams
+ * Demonstrates ADAPT Principle: Asynchronous First Communication
+ * Uses its own consumer group per instance (broadcast), since the progress stream
+ * for an order may be held open by any order-service instance. The group id is stable per node id,
+ * so restarts reuse it instead of leaving orphan groups behind, and every assignment seeks to the end:
+ * subscribers only need transitions from now on.
+ * Also consumes notification.sent, not part of the stream, so the saga latency metrics see the last hop.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaProgressListener implements ConsumerSeekAware {
+
+    private final SagaProgressRegistry progressRegistry;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    @KafkaListener(
+            id = "saga-progress",
+            topics = {
+                    "${adapt.kafka.topics.order-created}",
+                    "${adapt.kafka.topics.inventory-reserved}",
+                    "${adapt.kafka.topics.inventory-failed}",
+                    "${adapt.kafka.topics.payment-completed}",
+                    "${adapt.kafka.topics.payment-failed}",
+                    "${adapt.kafka.topics.order-confirmed}",
+                    "${adapt.kafka.topics.order-failed}",
+                    "${adapt.kafka.topics.invoice-generated}",
+                    "${adapt.kafka.topics.notification-sent}"
+            },
+            groupId = "${adapt.progress.group-id}",
+            containerFactory = "progressListenerContainerFactory"
+    )
+    public void handle(SpecificRecord event) {
+        if (event instanceof NotificationSent) {
+            return;
+        }
+        SagaProgressEvent progress = toProgress(event);
+        if (progress != null) {
+            progressRegistry.publish(progress);
+        }
+    }
+
+    private SagaProgressEvent toProgress(SpecificRecord event) {
+        if (event instanceof OrderCreated e) {
+            return progress(e.getOrderId(), SagaStep.ORDER_CREATED, null, e.getTimestamp());
+        } else if (event instanceof InventoryReserved e) {
+            return progress(e.getOrderId(), SagaStep.INVENTORY_RESERVED, null, e.getTimestamp());
+        } else if (event instanceof InventoryFailed e) {
+            return progress(e.getOrderId(), SagaStep.INVENTORY_FAILED, e.getReason(), e.getTimestamp());
+        } else if (event instanceof PaymentCompleted e) {
+            return progress(e.getOrderId(), SagaStep.PAYMENT_COMPLETED, null, e.getTimestamp());
+        } else if (event instanceof PaymentFailed e) {
+            return progress(e.getOrderId(), SagaStep.PAYMENT_FAILED, e.getReason(), e.getTimestamp());
+        } else if (event instanceof OrderConfirmed e) {
+            return progress(e.getOrderId(), SagaStep.ORDER_CONFIRMED, null, e.getTimestamp());
+        } else if (event instanceof OrderFailed e) {
+            return progress(e.getOrderId(), SagaStep.ORDER_FAILED, e.getReason(), e.getTimestamp());
+        } else if (event instanceof InvoiceGenerated e) {
+            return progress(e.getOrderId(), SagaStep.INVOICE_GENERATED, e.getInvoiceNumber(), e.getTimestamp());
+        }
+        log.warn("Ignoring unexpected event type on saga progress topics: {}", event.getClass().getName());
+        return null;
+    }
+
+    private static SagaProgressEvent progress(Long orderId, SagaStep step, String detail, long timestamp) {
+        return SagaProgressEvent.builder()
+                .orderId(orderId)
+                .step(step)
+                .detail(detail)
+                .timestamp(timestamp)
+                .build();
+    }
+}
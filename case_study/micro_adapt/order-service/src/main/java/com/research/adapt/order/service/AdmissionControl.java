@@ -0,0 +1,178 @@
+package com.research.adapt.order.service;
+
+import com.research.adapt.order.dto.AdmissionDecision;
+import com.research.adapt.order.dto.AdmissionDecision.Outcome;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for order creation
+ * Demonstrates ADAPT Principle: Piloted through Configuration
+ * A request must pass its user's token bucket, the global token bucket, and then obtain one of
+ * max-concurrent permits, waiting in a bounded FIFO queue if needed. A request whose expected wait
+ * already exceeds its deadline is shed at once instead of timing out in the queue, so the work the
+ * service does accept still completes quickly and goodput stays flat past saturation.
+ * Tokens are refunded when a later stage rejects the request, so global overload does not
+ * also use up each user's own rate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControl {
+
+    private static final long USER_BUCKET_IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${adapt.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${adapt.admission.global-rate:200}")
+    private double globalRate;
+
+    @Value("${adapt.admission.global-burst:400}")
+    private double globalBurst;
+
+    @Value("${adapt.admission.user-rate:5}")
+    private double userRate;
+
+    @Value("${adapt.admission.user-burst:10}")
+    private double userBurst;
+
+    @Value("${adapt.admission.max-concurrent:32}")
+    private int maxConcurrent;
+
+    @Value("${adapt.admission.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${adapt.admission.max-queue-wait-ms:500}")
+    private long maxQueueWaitMs;
+
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private TokenBucket globalBucket;
+    private Semaphore permits;
+    private Timer queueWait;
+    // Smoothed service time of admitted requests, used to predict queue waits
+    private volatile double serviceNanos = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @PostConstruct
+    void init() {
+        globalBucket = new TokenBucket(globalRate, globalBurst);
+        permits = new Semaphore(maxConcurrent, true);
+        queueWait = Timer.builder("adapt.order.admission.queue.wait")
+                .description("Time admitted requests waited for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("adapt.order.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("Requests waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("adapt.order.admission.inflight", this, control -> maxConcurrent - control.permits.availablePermits())
+                .description("Admitted requests in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userId     owner of the request, for the per-user bucket
+     * @param deadlineMs remaining client budget in milliseconds, or null for the configured maximum wait
+     */
+    public AdmissionDecision acquire(Long userId, Long deadlineMs) {
+        long start = System.nanoTime();
+        if (!enabled) {
+            return admitted();
+        }
+
+        TokenBucket userBucket = userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userRate, userBurst));
+        long userWait = userBucket.tryAcquire();
+        if (userWait > 0) {
+            return rejected(Outcome.USER_RATE_LIMITED, HttpStatus.TOO_MANY_REQUESTS, userWait);
+        }
+        long globalWait = globalBucket.tryAcquire();
+        if (globalWait > 0) {
+            userBucket.refund();
+            return rejected(Outcome.GLOBAL_RATE_LIMITED, HttpStatus.SERVICE_UNAVAILABLE, globalWait);
+        }
+
+        AdmissionDecision decision;
+        try {
+            decision = acquirePermit(deadlineMs, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            decision = rejected(Outcome.DEADLINE_EXCEEDED, HttpStatus.SERVICE_UNAVAILABLE, 0);
+        }
+        if (!decision.isAdmitted()) {
+            userBucket.refund();
+            globalBucket.refund();
+        }
+        return decision;
+    }
+
+    private AdmissionDecision acquirePermit(Long deadlineMs, long start) throws InterruptedException {
+        // The timed form honours the fair semaphore: it does not barge ahead of requests already queued
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return admitted();
+        }
+
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs != null ? Math.min(deadlineMs, maxQueueWaitMs) : maxQueueWaitMs);
+        int position = waiting.incrementAndGet();
+        try {
+            long expectedWait = (long) (position * serviceNanos / maxConcurrent);
+            if (position > queueCapacity) {
+                return rejected(Outcome.QUEUE_FULL, HttpStatus.SERVICE_UNAVAILABLE, expectedWait);
+            }
+            if (expectedWait > budgetNanos) {
+                return rejected(Outcome.DEADLINE_EXCEEDED, HttpStatus.SERVICE_UNAVAILABLE, expectedWait);
+            }
+            if (!permits.tryAcquire(budgetNanos, TimeUnit.NANOSECONDS)) {
+                return rejected(Outcome.DEADLINE_EXCEEDED, HttpStatus.SERVICE_UNAVAILABLE, expectedWait);
+            }
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return admitted();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release(AdmissionDecision decision) {
+        if (!decision.isAdmitted() || !enabled) {
+            return;
+        }
+        permits.release();
+        long elapsed = System.nanoTime() - decision.getAdmittedAtNanos();
+        serviceNanos += (elapsed - serviceNanos) * 0.1;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleUserBuckets() {
+        userBuckets.values().removeIf(bucket -> bucket.isIdle(USER_BUCKET_IDLE_NANOS));
+    }
+
+    private AdmissionDecision admitted() {
+        record(Outcome.ADMITTED);
+        return new AdmissionDecision(Outcome.ADMITTED, null, 0, System.nanoTime());
+    }
+
+    private AdmissionDecision rejected(Outcome outcome, HttpStatus status, long retryAfterNanos) {
+        record(outcome);
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        log.debug("Order request rejected by admission control: {} (retry after {}s)", outcome, retryAfterSeconds);
+        return new AdmissionDecision(outcome, status, retryAfterSeconds, 0);
+    }
+
+    private void record(Outcome outcome) {
+        meterRegistry.counter("adapt.order.admission", "outcome", outcome.name().toLowerCase()).increment();
+    }
+}
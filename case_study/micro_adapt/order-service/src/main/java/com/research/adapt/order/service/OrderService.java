@@ -1,15 +1,20 @@
 package com.research.adapt.order.service;
 
+import com.research.adapt.common.persistence.JdbcRoundTrips;
 import com.research.adapt.order.domain.Order;
 import com.research.adapt.order.domain.OrderItem;
 import com.research.adapt.order.domain.OrderStatus;
 import com.research.adapt.order.dto.*;
 import com.research.adapt.order.event.OrderEventProducer;
 import com.research.adapt.order.repository.OrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,6 +32,18 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderEventProducer eventProducer;
+    private final MeterRegistry meterRegistry;
+    private final SagaProgressRegistry progressRegistry;
+
+    private DistributionSummary statementsPerOrder;
+
+    @PostConstruct
+    void registerMetrics() {
+        statementsPerOrder = DistributionSummary.builder("adapt.persistence.statements.per.order")
+                .description("JDBC round trips needed to persist one order with its items")
+                .baseUnit("statements")
+                .register(meterRegistry);
+    }
 
     /**
      * Create a new order
@@ -58,8 +75,10 @@ public class OrderService {
             order.addItem(orderItem);
         }
 
-        // Save order
-        Order savedOrder = orderRepository.save(order);
+        // Save order - flushed here so the round trips of this order are measured, batched by adapt-persistence.yml
+        long roundTripsBefore = JdbcRoundTrips.current();
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        statementsPerOrder.record(JdbcRoundTrips.current() - roundTripsBefore);
         log.info("Order created with ID: {}", savedOrder.getId());
 
         // Publish event - let other services react
@@ -109,6 +128,35 @@ public class OrderService {
         );
     }
 
+    /**
+     * Mark order as completed once billing has invoiced it
+     * Called by SagaOutcomeListener; the saga has ended, so no further event is published.
+     */
+    @Transactional
+    public void completeOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        if (order.getStatus() == OrderStatus.CONFIRMED || order.getStatus() == OrderStatus.PROCESSING) {
+            order.setStatus(OrderStatus.COMPLETED);
+            orderRepository.save(order);
+        }
+    }
+
+    /**
+     * Mark order as failed after inventory could not be reserved
+     * InventoryFailed already ends the saga for every other service, so unlike failOrder no OrderFailed is published.
+     */
+    @Transactional
+    public void markInventoryFailed(Long orderId, String reason) {
+        log.info("Failing order ID: {} - Inventory unavailable: {}", orderId, reason);
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        if (order.getStatus() == OrderStatus.PENDING) {
+            order.setStatus(OrderStatus.FAILED);
+            orderRepository.save(order);
+        }
+    }
+
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
         log.info("Fetching order by ID: {}", id);
@@ -117,6 +165,39 @@ public class OrderService {
         return mapToResponse(order);
     }
 
+    /**
+     * Open a saga progress stream for an order
+     * Registers first and snapshots the status second, so no transition can fall between the two.
+     * A finished saga gets its terminal step right away and the stream completes. The terminal event
+     * this instance saw recently wins over the database, whose status update may not be committed yet.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter streamProgress(Long orderId) {
+        SseEmitter emitter = progressRegistry.subscribe(orderId);
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            progressRegistry.unsubscribe(orderId, emitter);
+            throw new RuntimeException("Order not found: " + orderId);
+        }
+        SagaProgressEvent terminal = progressRegistry.recentTerminal(orderId);
+        progressRegistry.send(emitter, terminal != null ? terminal : SagaProgressEvent.builder()
+                .orderId(orderId)
+                .step(snapshotStep(order.getStatus()))
+                .status(order.getStatus())
+                .timestamp(System.currentTimeMillis())
+                .build());
+        return emitter;
+    }
+
+    private static SagaStep snapshotStep(OrderStatus status) {
+        return switch (status) {
+            case COMPLETED -> SagaStep.INVOICE_GENERATED;
+            case CONFIRMED, PROCESSING -> SagaStep.ORDER_CONFIRMED;
+            case FAILED, CANCELLED -> SagaStep.ORDER_FAILED;
+            default -> SagaStep.ORDER_CREATED;
+        };
+    }
+
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByUserId(Long userId) {
         log.info("Fetching orders for user ID: {}", userId);
@@ -0,0 +1,271 @@
+package com.research.adapt.order.service;
+
+import com.research.adapt.order.dto.SagaProgressEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-order registry of saga progress subscribers
+ * Subscribers are async SSE responses: an open stream holds a map entry and a socket, not a thread,
+ * so an instance can keep tens of thousands of them. Entries are removed as soon as a stream
+ * completes, times out or fails, and orders without subscribers cost nothing when their events arrive.
+ * Writes go through a bounded sender pool (send-threads), never the Kafka listener or scheduler thread: every stream
+ * has its own queue, drained by one sender at a time so its events stay in order. A stream whose write takes longer
+ * than send-timeout-ms, that falls max-pending events behind, or that finds the pool full is completed with an error;
+ * its client reconnects and gets a fresh snapshot, and no other stream waits for it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaProgressRegistry {
+
+    /** Queued like an event, written as a keep-alive comment */
+    private static final SagaProgressEvent HEARTBEAT = SagaProgressEvent.builder().build();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    /** Terminal events seen lately, for subscribers arriving before the outcome is committed to the order */
+    private final Map<Long, Terminal> recentTerminal = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private ThreadPoolExecutor senders;
+
+    @Value("${adapt.progress.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    @Value("${adapt.progress.terminal-retention-ms:60000}")
+    private long terminalRetentionMs;
+
+    @Value("${adapt.progress.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${adapt.progress.send-queue:10000}")
+    private int sendQueue;
+
+    @Value("${adapt.progress.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${adapt.progress.max-pending:16}")
+    private int maxPending;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueue),
+                task -> {
+                    Thread thread = new Thread(task, "progress-sender-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("adapt.order.progress.subscribers", open, AtomicInteger::get)
+                .description("Open saga progress streams")
+                .register(meterRegistry);
+        Gauge.builder("adapt.order.progress.orders", subscribers, Map::size)
+                .description("Orders with at least one open progress stream")
+                .register(meterRegistry);
+        Gauge.builder("adapt.order.progress.sending", senders, executor -> executor.getQueue().size())
+                .description("Progress streams waiting for a sender")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long orderId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        subscribers.computeIfAbsent(orderId, id -> new CopyOnWriteArrayList<>()).add(new Subscriber(orderId, emitter));
+        open.incrementAndGet();
+
+        Runnable unsubscribe = () -> unsubscribe(orderId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    /** Send to a single subscriber, e.g. the snapshot taken right after it subscribed */
+    public void send(SseEmitter emitter, SagaProgressEvent event) {
+        List<Subscriber> emitters = subscribers.get(event.getOrderId());
+        if (emitters == null) {
+            return;
+        }
+        for (Subscriber subscriber : emitters) {
+            if (subscriber.emitter == emitter) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Recorded before subscribers are looked up, while streams subscribe before reading it,
+     * so a subscriber racing a terminal event gets the event from one side or the other.
+     */
+    public void publish(SagaProgressEvent event) {
+        if (event.getStep().isTerminal()) {
+            recentTerminal.put(event.getOrderId(), new Terminal(event, System.currentTimeMillis()));
+        }
+        List<Subscriber> emitters = subscribers.get(event.getOrderId());
+        if (emitters == null) {
+            return;
+        }
+        log.debug("Pushing {} for order {} to {} subscriber(s)", event.getStep(), event.getOrderId(), emitters.size());
+        for (Subscriber subscriber : emitters) {
+            subscriber.offer(event);
+        }
+    }
+
+    public SagaProgressEvent recentTerminal(Long orderId) {
+        Terminal terminal = recentTerminal.get(orderId);
+        return terminal != null ? terminal.event() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${adapt.progress.terminal-retention-ms:60000}")
+    public void expireTerminal() {
+        long cutoff = System.currentTimeMillis() - terminalRetentionMs;
+        recentTerminal.values().removeIf(terminal -> terminal.seenAt() < cutoff);
+    }
+
+    /** Comment frames keep proxies from closing idle streams and surface dead connections */
+    @Scheduled(fixedDelayString = "${adapt.progress.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(emitters -> emitters.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    /** Completes streams stuck in a write, so nothing more is queued behind a client that stopped reading */
+    @Scheduled(fixedDelayString = "${adapt.progress.send-timeout-ms:5000}")
+    public void expireStalledSends() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        subscribers.values().forEach(emitters -> emitters.forEach(subscriber -> {
+            long since = subscriber.sendingSince;
+            if (since != 0 && since - cutoff < 0) {
+                subscriber.fail("timeout", new TimeoutException("Progress event not written within " + sendTimeoutMs + " ms"));
+            }
+        }));
+    }
+
+    public void unsubscribe(Long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            if (emitters.removeIf(subscriber -> subscriber.emitter == emitter)) {
+                open.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record Terminal(SagaProgressEvent event, long seenAt) {
+    }
+
+    /**
+     * One stream and the events not yet written to it
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private final Queue<SagaProgressEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        private Subscriber(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SagaProgressEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                fail("backlog", new IllegalStateException("Progress stream fell " + maxPending + " events behind"));
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this);
+            } catch (RejectedExecutionException e) {
+                fail("rejected", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            SagaProgressEvent event;
+            while (!closed.get() && (event = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                sendingSince = System.nanoTime();
+                try {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.getStep().name()).data(event));
+                        if (event.getStep().isTerminal()) {
+                            // Completion callbacks are not invoked for a stream completed before it was handed to MVC
+                            close();
+                            emitter.complete();
+                        }
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    fail("error", e);
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            scheduled.set(false);
+            // An event offered after the queue looked empty but before the flag was cleared
+            if (!closed.get() && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void fail(String reason, Throwable error) {
+            if (close()) {
+                meterRegistry.counter("adapt.order.progress.dropped", "reason", reason).increment();
+                emitter.completeWithError(error);
+            }
+        }
+
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            unsubscribe(orderId, emitter);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.research.adapt.order.service;
+
+/**
+ * Lazily refilled token bucket
+ * Tokens accrue at ratePerSecond up to burst; nothing runs in the background.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+    private long lastUsed;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+        this.lastUsed = lastRefill;
+    }
+
+    /**
+     * Take one token
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        lastUsed = lastRefill;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    /** Give back a token taken by a request that was rejected further on */
+    public synchronized void refund() {
+        refill();
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    /** Full and unused for idleNanos: the bucket can be dropped and recreated on demand */
+    public synchronized boolean isIdle(long idleNanos) {
+        refill();
+        return tokens >= burst && lastRefill - lastUsed > idleNanos;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,24 @@
+-- Order service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+
+CREATE TABLE IF NOT EXISTS orders (
+    id           BIGINT         NOT NULL PRIMARY KEY,
+    user_id      BIGINT         NOT NULL,
+    status       VARCHAR(255)   NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    order_date   TIMESTAMP(6)   NOT NULL,
+    created_at   TIMESTAMP(6)   NOT NULL,
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         BIGINT         NOT NULL PRIMARY KEY,
+    order_id   BIGINT         NOT NULL REFERENCES orders (id),
+    product_id BIGINT         NOT NULL,
+    quantity   INTEGER        NOT NULL,
+    unit_price NUMERIC(19, 2) NOT NULL
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
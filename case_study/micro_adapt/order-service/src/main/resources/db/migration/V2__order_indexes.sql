@@ -0,0 +1,8 @@
+-- OrderRepository.findByUserId and findByUserIdAndStatus (leading column serves both)
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_status ON orders (user_id, status);
+
+-- OrderRepository.findByStatus
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
+
+-- Loading Order.items (EAGER) and cascading deletes; PostgreSQL does not index foreign keys
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
@@ -0,0 +1,69 @@
+package com.research.adapt.order.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import com.research.adapt.order.domain.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every OrderRepository finder must be served by an index from V2__order_indexes.sql
+ * 20k orders over 2k users, 1% PENDING, two items each
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class OrderRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void loadOrders() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO orders (id, user_id, status, total_amount, order_date, created_at)
+                SELECT n, n % 2000, CASE WHEN n % 100 = 0 THEN 'PENDING' ELSE 'COMPLETED' END, 10.00, now(), now()
+                FROM generate_series(1, 20000) n""");
+        jdbc.update("""
+                INSERT INTO order_items (id, order_id, product_id, quantity, unit_price)
+                SELECT n, (n + 1) / 2, n % 500, 1, 5.00
+                FROM generate_series(1, 40000) n""");
+        jdbc.execute("ANALYZE orders");
+        jdbc.execute("ANALYZE order_items");
+        recorder.reset();
+    }
+
+    @Test
+    void findByUserIdUsesIndex() {
+        assertThat(orderRepository.findByUserId(42L)).hasSize(10);
+        recorder.assertNoSequentialScans("OrderRepository.findByUserId");
+    }
+
+    @Test
+    void findByStatusUsesIndex() {
+        assertThat(orderRepository.findByStatus(OrderStatus.PENDING)).hasSize(200);
+        recorder.assertNoSequentialScans("OrderRepository.findByStatus");
+    }
+
+    @Test
+    void findByUserIdAndStatusUsesIndex() {
+        assertThat(orderRepository.findByUserIdAndStatus(100L, OrderStatus.PENDING)).hasSize(10);
+        recorder.assertNoSequentialScans("OrderRepository.findByUserIdAndStatus");
+    }
+}
@@ -1,5 +1,6 @@
 package com.research.adapt.payment.service;
 
+import com.research.adapt.common.id.TimeOrderedIds;
 import com.research.adapt.events.inventory.InventoryReserved;
 import com.research.adapt.events.payment.PaymentFailureCode;
 import com.research.adapt.payment.domain.Payment;
@@ -16,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -55,7 +55,7 @@ public class PaymentService {
                     .amount(totalAmount)
                     .paymentMethod(PaymentMethod.CREDIT_CARD)
                     .status(paymentSuccessful ? PaymentStatus.COMPLETED : PaymentStatus.FAILED)
-                    .transactionId(UUID.randomUUID().toString())
+                    .transactionId("TXN-" + Long.toString(TimeOrderedIds.nextId(), 36).toUpperCase())
                     .paymentDate(paymentSuccessful ? LocalDateTime.now() : null)
                     .failureReason(paymentSuccessful ? null : "Payment gateway declined")
                     .build();
@@ -0,0 +1,19 @@
+-- Payment service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+
+CREATE TABLE IF NOT EXISTS payments (
+    id             BIGINT         NOT NULL PRIMARY KEY,
+    order_id       BIGINT         NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    amount         NUMERIC(10, 2) NOT NULL,
+    status         VARCHAR(255)   NOT NULL,
+    payment_method VARCHAR(255)   NOT NULL,
+    transaction_id VARCHAR(255) UNIQUE,
+    payment_date   TIMESTAMP(6),
+    failure_reason VARCHAR(255),
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,6 @@
+-- PaymentRepository.findByOrderId and existsByOrderId (idempotency check on every order event)
+-- INCLUDE (id) makes the exists probe an index-only scan
+CREATE INDEX IF NOT EXISTS idx_payments_order_id ON payments (order_id) INCLUDE (id);
+
+-- PaymentRepository.findByUserId
+CREATE INDEX IF NOT EXISTS idx_payments_user_id ON payments (user_id);
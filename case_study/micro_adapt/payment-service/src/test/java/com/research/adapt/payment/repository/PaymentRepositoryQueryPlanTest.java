@@ -0,0 +1,69 @@
+package com.research.adapt.payment.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every PaymentRepository finder must be served by an index from V1/V2
+ * 20k payments, one per order, over 2k users
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class PaymentRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void loadPayments() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO payments (id, order_id, user_id, amount, status, payment_method, transaction_id, created_at)
+                SELECT n, n, n % 2000, 10.00, 'COMPLETED', 'CREDIT_CARD', 'TXN-' || n, now()
+                FROM generate_series(1, 20000) n""");
+        jdbc.execute("ANALYZE payments");
+        recorder.reset();
+    }
+
+    @Test
+    void findByOrderIdUsesIndex() {
+        assertThat(paymentRepository.findByOrderId(4242L)).isPresent();
+        recorder.assertNoSequentialScans("PaymentRepository.findByOrderId");
+    }
+
+    @Test
+    void findByUserIdUsesIndex() {
+        assertThat(paymentRepository.findByUserId(42L)).hasSize(10);
+        recorder.assertNoSequentialScans("PaymentRepository.findByUserId");
+    }
+
+    @Test
+    void existsByOrderIdUsesIndex() {
+        assertThat(paymentRepository.existsByOrderId(4242L)).isTrue();
+        recorder.assertNoSequentialScans("PaymentRepository.existsByOrderId");
+    }
+
+    @Test
+    void findByTransactionIdUsesIndex() {
+        assertThat(paymentRepository.findByTransactionId("TXN-4242")).isPresent();
+        recorder.assertNoSequentialScans("PaymentRepository.findByTransactionId");
+    }
+}
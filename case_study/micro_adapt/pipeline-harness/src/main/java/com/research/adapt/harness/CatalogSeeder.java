@@ -0,0 +1,47 @@
+package com.research.adapt.harness;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Seeds products and users, the same rows benchmarks/scripts/seed-data.py creates for the docker setup
+ * Stock is large enough that no order fails for lack of inventory.
+ */
+@Slf4j
+public final class CatalogSeeder {
+
+    // Keep in sync with PRICE_SQL in benchmarks/scripts/seed-data.py and LoadDriver.price
+    private static final String PRODUCTS_SQL = """
+            INSERT INTO products (id, name, description, price, stock_quantity, reserved_quantity, sku, created_at, updated_at)
+            SELECT g, 'Product ' || g, 'Seeded benchmark product ' || g, (500 + (g::bigint * 7919) % 20000) / 100.0,
+                   1000000000, 0, 'SKU-' || lpad(g::text, 8, '0'), now(), now()
+            FROM generate_series(1, ?) AS g
+            """;
+
+    private static final String USERS_SQL = """
+            INSERT INTO users (id, username, email, password, full_name, created_at, updated_at)
+            SELECT g, 'user' || g, 'user' || g || '@bench.local', 'seeded', 'Benchmark User ' || g, now(), now()
+            FROM generate_series(1, ?) AS g
+            """;
+
+    private CatalogSeeder() {
+    }
+
+    public static void seed(EmbeddedInfrastructure infrastructure, HarnessOptions options) throws SQLException {
+        int products = execute(infrastructure, ServiceNode.INVENTORY, PRODUCTS_SQL, options.catalogSize());
+        int users = execute(infrastructure, ServiceNode.USER, USERS_SQL, options.users());
+        log.info("Seeded {} products and {} users", products, users);
+    }
+
+    private static int execute(EmbeddedInfrastructure infrastructure, ServiceNode node, String sql, int count)
+            throws SQLException {
+        try (Connection connection = infrastructure.dataSource(node).getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, count);
+            return statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.research.adapt.harness;
+
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Broker, schema registry and databases for the harness, all inside the harness JVM
+ * - Kafka: single-node KRaft broker with every saga topic pre-created
+ * - Schema registry: Confluent's in-memory registry, shared by all clients using the same mock:// scope
+ * - PostgreSQL: one embedded server with a database per service, so the Flyway migrations run unchanged
+ */
+@Slf4j
+public class EmbeddedInfrastructure implements AutoCloseable {
+
+    private static final String SCHEMA_REGISTRY_SCOPE = "adapt-harness";
+    public static final String SCHEMA_REGISTRY_URL = "mock://" + SCHEMA_REGISTRY_SCOPE;
+
+    private final EmbeddedKafkaBroker kafka;
+    private final EmbeddedPostgres postgres;
+
+    private EmbeddedInfrastructure(EmbeddedKafkaBroker kafka, EmbeddedPostgres postgres) {
+        this.kafka = kafka;
+        this.postgres = postgres;
+    }
+
+    public static EmbeddedInfrastructure start(HarnessOptions options) throws IOException, SQLException {
+        long started = System.nanoTime();
+
+        EmbeddedKafkaBroker kafka = new EmbeddedKafkaKraftBroker(1, options.partitions(),
+                PipelineEvent.topics().toArray(String[]::new));
+        kafka.afterPropertiesSet();
+
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                for (ServiceNode node : ServiceNode.values()) {
+                    statement.execute("CREATE DATABASE " + node.database());
+                }
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            kafka.destroy();
+            throw e;
+        }
+
+        log.info("Embedded broker {} and PostgreSQL on port {} ready in {} ms",
+                kafka.getBrokersAsString(), postgres.getPort(), (System.nanoTime() - started) / 1_000_000);
+        return new EmbeddedInfrastructure(kafka, postgres);
+    }
+
+    public String bootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public String jdbcUrl(ServiceNode node) {
+        return postgres.getJdbcUrl("postgres", node.database());
+    }
+
+    public DataSource dataSource(ServiceNode node) {
+        return postgres.getDatabase("postgres", node.database());
+    }
+
+    @Override
+    public void close() {
+        try {
+            kafka.destroy();
+        } finally {
+            try {
+                postgres.close();
+            } catch (IOException e) {
+                log.warn("Failed to stop embedded PostgreSQL", e);
+            }
+            MockSchemaRegistry.dropScope(SCHEMA_REGISTRY_SCOPE);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.research.adapt.harness;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness run settings, parsed from --key=value arguments
+ *
+ * @param orders          measured orders
+ * @param warmupOrders    orders sent first and left out of the results (JIT, connection pools, consumer assignment)
+ * @param rate            target orders per second, paced open-loop; 0 submits as fast as the driver threads allow
+ * @param driverThreads   threads calling OrderService.createOrder
+ * @param partitions      partitions per saga topic
+ * @param catalogSize     seeded products, ids 1..catalogSize
+ * @param users           seeded users, ids 1..users
+ * @param productSkew     Zipf exponent for product popularity (0 = uniform)
+ * @param timeoutSeconds  how long to wait for outstanding sagas after the last submit
+ * @param drainSeconds    extra wait for coalesced notifications once every saga has ended
+ * @param output          optional JSON result file
+ * @param logLevel        level for com.research.adapt loggers in all services
+ */
+public record HarnessOptions(
+        int orders,
+        int warmupOrders,
+        double rate,
+        int driverThreads,
+        int partitions,
+        int catalogSize,
+        int users,
+        double productSkew,
+        int timeoutSeconds,
+        int drainSeconds,
+        Path output,
+        String logLevel) {
+
+    public static HarnessOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        HarnessOptions options = new HarnessOptions(
+                Integer.parseInt(values.getOrDefault("orders", "1000")),
+                Integer.parseInt(values.getOrDefault("warmup", "100")),
+                Double.parseDouble(values.getOrDefault("rate", "25")),
+                Integer.parseInt(values.getOrDefault("driver-threads", "8")),
+                Integer.parseInt(values.getOrDefault("partitions", "3")),
+                Integer.parseInt(values.getOrDefault("catalog-size", "1000")),
+                Integer.parseInt(values.getOrDefault("users", "10000")),
+                Double.parseDouble(values.getOrDefault("product-skew", "0.99")),
+                Integer.parseInt(values.getOrDefault("timeout-seconds", "120")),
+                Integer.parseInt(values.getOrDefault("drain-seconds", "6")),
+                values.containsKey("output") ? Path.of(values.get("output")) : null,
+                values.getOrDefault("log-level", "WARN"));
+
+        if (options.orders < 1 || options.driverThreads < 1 || options.partitions < 1
+                || options.catalogSize < 1 || options.users < 1) {
+            throw new IllegalArgumentException("orders, driver-threads, partitions, catalog-size and users must be positive");
+        }
+        return options;
+    }
+
+    public int totalOrders() {
+        return warmupOrders + orders;
+    }
+}
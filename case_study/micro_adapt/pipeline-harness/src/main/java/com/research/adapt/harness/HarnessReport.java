@@ -0,0 +1,143 @@
+package com.research.adapt.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of one harness run: saga outcomes, pipeline throughput and per-hop latency percentiles
+ * Only measured (non warm-up) orders count. Throughput is taken over the window from the first
+ * measured submit to the last measured saga end.
+ */
+public class HarnessReport {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final HarnessOptions options;
+    private final Map<Hop, Histogram> hops = new EnumMap<>(Hop.class);
+    private int completed;
+    private int failed;
+    private int unfinished;
+    private long events;
+    private final long windowNanos;
+
+    public HarnessReport(HarnessOptions options, Collection<OrderTrace> traces) {
+        this.options = options;
+        for (Hop hop : Hop.values()) {
+            hops.put(hop, new Histogram(HIGHEST_TRACKABLE_NANOS, 3));
+        }
+
+        long firstSubmit = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        for (OrderTrace trace : traces) {
+            if (!trace.isMeasured()) {
+                continue;
+            }
+            PipelineEvent outcome = trace.outcome();
+            if (outcome == null) {
+                unfinished++;
+            } else if (outcome.outcome() == PipelineEvent.Outcome.COMPLETED) {
+                completed++;
+            } else {
+                failed++;
+            }
+            events += trace.events();
+            firstSubmit = Math.min(firstSubmit, trace.submittedAt());
+            if (outcome != null) {
+                lastEnd = Math.max(lastEnd, trace.seenAt(outcome));
+            }
+            for (Hop hop : Hop.values()) {
+                long latency = trace.latency(hop);
+                if (latency >= 0) {
+                    hops.get(hop).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                }
+            }
+        }
+        windowNanos = lastEnd > firstSubmit ? lastEnd - firstSubmit : 0;
+    }
+
+    public double eventsPerSecond() {
+        return windowNanos > 0 ? events * 1e9 / windowNanos : 0;
+    }
+
+    public double ordersPerSecond() {
+        return windowNanos > 0 ? completed * 1e9 / windowNanos : 0;
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Pipeline harness: %d orders (+%d warm-up), rate %s, %d partitions, product skew %.2f%n",
+                options.orders(), options.warmupOrders(),
+                options.rate() > 0 ? options.rate() + "/s" : "unthrottled", options.partitions(), options.productSkew());
+        out.printf("Sagas: %d completed, %d failed, %d unfinished in %.2f s%n",
+                completed, failed, unfinished, windowNanos / 1e9);
+        out.printf("Throughput: %.1f orders/s, %.1f events/s%n", ordersPerSecond(), eventsPerSecond());
+        out.println();
+        out.printf("%-62s %8s %9s %9s %9s %9s %9s%n", "hop", "count", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Hop hop : Hop.values()) {
+            Histogram histogram = hops.get(hop);
+            out.printf("%-62s %8d", hop.label(), histogram.getTotalCount());
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.3f", millis(histogram.getValueAtPercentile(percentile)));
+            }
+            out.printf(" %9.3f%n", millis(histogram.getMaxValue()));
+        }
+        out.println();
+    }
+
+    public void write(Path file) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("orders", options.orders());
+        result.put("warmupOrders", options.warmupOrders());
+        result.put("rate", options.rate());
+        result.put("partitions", options.partitions());
+        result.put("productSkew", options.productSkew());
+        result.put("completed", completed);
+        result.put("failed", failed);
+        result.put("unfinished", unfinished);
+        result.put("windowSeconds", windowNanos / 1e9);
+        result.put("ordersPerSecond", ordersPerSecond());
+        result.put("eventsPerSecond", eventsPerSecond());
+
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        for (Hop hop : Hop.values()) {
+            Histogram histogram = hops.get(hop);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("label", hop.label());
+            values.put("count", histogram.getTotalCount());
+            for (double percentile : PERCENTILES) {
+                values.put("p" + formatPercentile(percentile) + "Ms", millis(histogram.getValueAtPercentile(percentile)));
+            }
+            values.put("maxMs", millis(histogram.getMaxValue()));
+            latencies.put(hop.name(), values);
+        }
+        result.put("hops", latencies);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile).replace('.', '_');
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,43 @@
+package com.research.adapt.harness;
+
+/**
+ * One step of the order saga, measured between two observed events
+ * A null {@code from} means the moment the load driver intended to submit the order.
+ */
+public enum Hop {
+
+    ORDER_SERVICE("order-service: submit -> order.created", null, PipelineEvent.ORDER_CREATED),
+    INVENTORY_SERVICE("inventory-service: order.created -> inventory.reserved",
+            PipelineEvent.ORDER_CREATED, PipelineEvent.INVENTORY_RESERVED),
+    PAYMENT_SERVICE("payment-service: inventory.reserved -> payment.completed",
+            PipelineEvent.INVENTORY_RESERVED, PipelineEvent.PAYMENT_COMPLETED),
+    ORDER_CONFIRMATION("order-service: payment.completed -> order.confirmed",
+            PipelineEvent.PAYMENT_COMPLETED, PipelineEvent.ORDER_CONFIRMED),
+    BILLING_SERVICE("billing-service: payment.completed -> invoice.generated",
+            PipelineEvent.PAYMENT_COMPLETED, PipelineEvent.INVOICE_GENERATED),
+    NOTIFICATION_SERVICE("notification-service: invoice.generated -> notification.sent",
+            PipelineEvent.INVOICE_GENERATED, PipelineEvent.NOTIFICATION_SENT),
+    END_TO_END("saga: submit -> invoice.generated", null, PipelineEvent.INVOICE_GENERATED);
+
+    private final String label;
+    private final PipelineEvent from;
+    private final PipelineEvent to;
+
+    Hop(String label, PipelineEvent from, PipelineEvent to) {
+        this.label = label;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public PipelineEvent from() {
+        return from;
+    }
+
+    public PipelineEvent to() {
+        return to;
+    }
+}
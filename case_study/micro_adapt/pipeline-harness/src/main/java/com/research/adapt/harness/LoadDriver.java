@@ -0,0 +1,109 @@
+package com.research.adapt.harness;
+
+import com.research.adapt.order.dto.CreateOrderRequest;
+import com.research.adapt.order.dto.OrderItemRequest;
+import com.research.adapt.order.dto.OrderResponse;
+import com.research.adapt.order.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scripted load: creates orders through OrderService at a fixed arrival rate
+ * Open loop: each order has an intended start time on a fixed schedule, and latencies are measured from it,
+ * so a slow createOrder call does not hide the queueing it causes (coordinated omission).
+ * The HTTP layer (and with it admission control) is bypassed on purpose: the harness measures the event pipeline.
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final int MAX_BASKET = 3;
+    private static final int MAX_QUANTITY = 2;
+
+    private final OrderService orderService;
+    private final PipelineTap tap;
+    private final HarnessOptions options;
+    private final ZipfDistribution products;
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    public LoadDriver(OrderService orderService, PipelineTap tap, HarnessOptions options) {
+        this.orderService = orderService;
+        this.tap = tap;
+        this.options = options;
+        this.products = new ZipfDistribution(options.catalogSize(), options.productSkew());
+    }
+
+    /** Submits warm-up and measured orders; returns the number of orders accepted by the order service */
+    public int run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.driverThreads());
+        long interval = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / options.rate()) : 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < options.totalOrders(); i++) {
+            boolean measured = i >= options.warmupOrders();
+            if (interval > 0) {
+                long intendedAt = start + i * interval;
+                long wait = intendedAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                workers.execute(() -> submit(intendedAt, measured));
+            } else {
+                workers.execute(() -> submit(System.nanoTime(), measured));
+            }
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(options.timeoutSeconds(), TimeUnit.SECONDS);
+        int accepted = options.totalOrders() - rejected.get();
+        log.info("Submitted {} orders in {} ms ({} rejected)", options.totalOrders(),
+                (System.nanoTime() - start) / 1_000_000, rejected.get());
+        return accepted;
+    }
+
+    private void submit(long intendedAt, boolean measured) {
+        try {
+            OrderResponse order = orderService.createOrder(nextOrder(ThreadLocalRandom.current()));
+            tap.submitted(order.getId(), intendedAt, measured);
+        } catch (RuntimeException e) {
+            rejected.incrementAndGet();
+            log.warn("Order submission failed: {}", e.getMessage());
+        }
+    }
+
+    private CreateOrderRequest nextOrder(Random random) {
+        int basket = 1 + random.nextInt(MAX_BASKET);
+        Set<Integer> productIds = new HashSet<>();
+        List<OrderItemRequest> items = new ArrayList<>(basket);
+        while (items.size() < basket && productIds.size() < options.catalogSize()) {
+            int productId = products.sample(random);
+            if (productIds.add(productId)) {
+                items.add(OrderItemRequest.builder()
+                        .productId((long) productId)
+                        .quantity(1 + random.nextInt(MAX_QUANTITY))
+                        .unitPrice(price(productId))
+                        .build());
+            }
+        }
+        return CreateOrderRequest.builder()
+                .userId(1L + random.nextInt(options.users()))
+                .items(items)
+                .build();
+    }
+
+    /** Unit price of a seeded product; same formula as CatalogSeeder */
+    static BigDecimal price(int productId) {
+        return BigDecimal.valueOf(500 + (productId * 7919L) % 20000, 2);
+    }
+}
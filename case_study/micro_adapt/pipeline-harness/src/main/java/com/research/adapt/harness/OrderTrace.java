@@ -0,0 +1,67 @@
+package com.research.adapt.harness;
+
+import java.util.Arrays;
+
+/**
+ * When each saga event of one order was observed, in System.nanoTime units
+ * Written by the driver (submit) and the tap (events), which may race for the same order; hence synchronized.
+ */
+class OrderTrace {
+
+    private static final long NOT_SEEN = Long.MIN_VALUE;
+
+    private final long[] seenAt = new long[PipelineEvent.values().length];
+    private long submittedAt = NOT_SEEN;
+    private boolean measured;
+    private PipelineEvent outcome;
+    private int events;
+
+    OrderTrace() {
+        Arrays.fill(seenAt, NOT_SEEN);
+    }
+
+    synchronized void submitted(long intendedAt, boolean measured) {
+        this.submittedAt = intendedAt;
+        this.measured = measured;
+    }
+
+    /** Records an event; returns true when it is the first terminal event of the order */
+    synchronized boolean observed(PipelineEvent event, long at) {
+        events++;
+        if (seenAt[event.ordinal()] == NOT_SEEN) {
+            seenAt[event.ordinal()] = at;
+        }
+        if (event.isTerminal() && outcome == null) {
+            outcome = event;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean isMeasured() {
+        return measured;
+    }
+
+    synchronized PipelineEvent outcome() {
+        return outcome;
+    }
+
+    synchronized int events() {
+        return events;
+    }
+
+    synchronized long submittedAt() {
+        return submittedAt;
+    }
+
+    /** Latency of a hop in nanoseconds, or -1 if one of its events was not observed */
+    synchronized long latency(Hop hop) {
+        long start = hop.from() == null ? submittedAt : seenAt[hop.from().ordinal()];
+        long end = seenAt[hop.to().ordinal()];
+        return start == NOT_SEEN || end == NOT_SEEN ? -1 : Math.max(0, end - start);
+    }
+
+    synchronized long seenAt(PipelineEvent event) {
+        return seenAt[event.ordinal()];
+    }
+}
@@ -0,0 +1,57 @@
+package com.research.adapt.harness;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Saga topics observed by the {@link PipelineTap}
+ * Topic names match the adapt.kafka.topics.* settings of the services.
+ */
+public enum PipelineEvent {
+
+    ORDER_CREATED("order.created.v1", Outcome.NONE),
+    INVENTORY_RESERVED("inventory.reserved.v1", Outcome.NONE),
+    INVENTORY_FAILED("inventory.failed.v1", Outcome.FAILED),
+    PAYMENT_COMPLETED("payment.completed.v1", Outcome.NONE),
+    PAYMENT_FAILED("payment.failed.v1", Outcome.FAILED),
+    ORDER_CONFIRMED("order.confirmed.v1", Outcome.NONE),
+    ORDER_FAILED("order.failed.v1", Outcome.FAILED),
+    INVOICE_GENERATED("invoice.generated.v1", Outcome.COMPLETED),
+    NOTIFICATION_SENT("notification.sent.v1", Outcome.NONE);
+
+    public enum Outcome { NONE, COMPLETED, FAILED }
+
+    private final String topic;
+    private final Outcome outcome;
+
+    PipelineEvent(String topic, Outcome outcome) {
+        this.topic = topic;
+        this.outcome = outcome;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    /** Whether this event ends the saga of its order (notifications follow later, coalesced) */
+    public boolean isTerminal() {
+        return outcome != Outcome.NONE;
+    }
+
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    public static PipelineEvent forTopic(String topic) {
+        for (PipelineEvent event : values()) {
+            if (event.topic.equals(topic)) {
+                return event;
+            }
+        }
+        throw new IllegalArgumentException("Not a saga topic: " + topic);
+    }
+
+    public static List<String> topics() {
+        return Arrays.stream(values()).map(PipelineEvent::topic).toList();
+    }
+}
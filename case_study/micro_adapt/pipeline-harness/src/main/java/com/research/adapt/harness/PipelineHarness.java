@@ -0,0 +1,65 @@
+package com.research.adapt.harness;
+
+import com.research.adapt.order.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-JVM pipeline harness
+ * Boots all domain services against an embedded broker, mock schema registry and embedded PostgreSQL,
+ * drives orders through the saga and reports events/sec and per-hop latency. No docker, no network
+ * beyond loopback. Absolute numbers are for comparing builds on the same machine, not for capacity planning:
+ * all services share one heap and one CPU budget.
+ *
+ * Run with: mvn -Pharness -pl pipeline-harness -am verify -Dharness.args="--orders=2000 --rate=50"
+ */
+@Slf4j
+public class PipelineHarness {
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(args);
+        Deque<ConfigurableApplicationContext> contexts = new ArrayDeque<>();
+
+        try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start(options)) {
+            try {
+                ServiceLauncher launcher = new ServiceLauncher(infrastructure, options);
+                OrderService orderService = null;
+                for (ServiceNode node : ServiceNode.values()) {
+                    ConfigurableApplicationContext context = launcher.start(node);
+                    contexts.push(context);
+                    if (node == ServiceNode.ORDER) {
+                        orderService = context.getBean(OrderService.class);
+                    }
+                }
+                CatalogSeeder.seed(infrastructure, options);
+
+                try (PipelineTap tap = new PipelineTap(infrastructure)) {
+                    tap.start(options.partitions());
+
+                    int accepted = new LoadDriver(orderService, tap, options).run();
+
+                    if (!tap.awaitFinished(accepted, options.timeoutSeconds(), TimeUnit.SECONDS)) {
+                        log.warn("Not every saga ended within {} s; unfinished orders are reported", options.timeoutSeconds());
+                    }
+                    // Notifications are coalesced per user, so they trail the end of the saga
+                    TimeUnit.SECONDS.sleep(options.drainSeconds());
+
+                    HarnessReport report = new HarnessReport(options, tap.traces());
+                    report.print(System.out);
+                    if (options.output() != null) {
+                        report.write(options.output());
+                        log.info("Results written to {}", options.output().toAbsolutePath());
+                    }
+                }
+            } finally {
+                while (!contexts.isEmpty()) {
+                    contexts.pop().close();
+                }
+            }
+        }
+    }
+}
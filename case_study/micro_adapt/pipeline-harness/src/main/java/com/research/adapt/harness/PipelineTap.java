@@ -0,0 +1,129 @@
+package com.research.adapt.harness;
+
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Observes every saga topic and timestamps each event per order
+ * All hops are measured on the tap's clock, so the tap's own consumer delay is the same on both ends of a hop.
+ * The tap is its own consumer group and never commits offsets; it does not slow the services down.
+ */
+@Slf4j
+public class PipelineTap implements AutoCloseable {
+
+    private final KafkaConsumer<String, Object> consumer;
+    private final Map<Long, OrderTrace> traces = new ConcurrentHashMap<>();
+    private final Thread poller;
+    private final Object progress = new Object();
+    private volatile boolean running = true;
+    private int finished;
+
+    public PipelineTap(EmbeddedInfrastructure infrastructure) {
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, infrastructure.bootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "pipeline-harness-tap",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class,
+                "schema.registry.url", EmbeddedInfrastructure.SCHEMA_REGISTRY_URL,
+                "specific.avro.reader", true));
+        this.poller = new Thread(this::poll, "pipeline-tap");
+    }
+
+    /** Subscribes and returns once all partitions are assigned, so no event of the run is missed */
+    public void start(int partitions) throws TimeoutException {
+        consumer.subscribe(PipelineEvent.topics());
+        int expected = PipelineEvent.values().length * partitions;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (consumer.assignment().size() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Tap got " + consumer.assignment().size() + " of " + expected + " partitions");
+            }
+            consumer.poll(Duration.ofMillis(100));
+        }
+        poller.start();
+    }
+
+    private void poll() {
+        try {
+            while (running) {
+                ConsumerRecords<String, Object> records = consumer.poll(Duration.ofMillis(50));
+                long now = System.nanoTime();
+                for (ConsumerRecord<String, Object> record : records) {
+                    observe(record, now);
+                }
+            }
+        } catch (WakeupException e) {
+            // closing
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void observe(ConsumerRecord<String, Object> record, long now) {
+        if (!(record.value() instanceof GenericRecord value) || !(value.get("orderId") instanceof Long orderId)) {
+            return;
+        }
+        PipelineEvent event = PipelineEvent.forTopic(record.topic());
+        if (trace(orderId).observed(event, now)) {
+            synchronized (progress) {
+                finished++;
+                progress.notifyAll();
+            }
+        }
+    }
+
+    /** Called by the driver once the order id is known; the tap may already have seen its first events */
+    public void submitted(long orderId, long intendedAt, boolean measured) {
+        trace(orderId).submitted(intendedAt, measured);
+    }
+
+    private OrderTrace trace(long orderId) {
+        return traces.computeIfAbsent(orderId, id -> new OrderTrace());
+    }
+
+    /** Waits until the given number of sagas have ended (completed or failed); returns false on timeout */
+    public boolean awaitFinished(int sagas, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (progress) {
+            while (finished < sagas) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+            return true;
+        }
+    }
+
+    public Collection<OrderTrace> traces() {
+        return traces.values();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (poller.isAlive()) {
+            consumer.wakeup();
+            poller.join(TimeUnit.SECONDS.toMillis(5));
+        } else {
+            consumer.close();
+        }
+    }
+}
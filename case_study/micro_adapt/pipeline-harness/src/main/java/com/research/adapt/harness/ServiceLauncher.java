@@ -0,0 +1,76 @@
+package com.research.adapt.harness;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.util.List;
+
+/**
+ * Boots one Spring context per domain service, all in the harness JVM
+ * Each context reads its own service's application.yml; command-line arguments then point it at the
+ * embedded infrastructure (they take precedence over application.yml). The web server is not started:
+ * the load driver calls the order service directly.
+ */
+@Slf4j
+public class ServiceLauncher {
+
+    private final EmbeddedInfrastructure infrastructure;
+    private final HarnessOptions options;
+
+    public ServiceLauncher(EmbeddedInfrastructure infrastructure, HarnessOptions options) {
+        this.infrastructure = infrastructure;
+        this.options = options;
+    }
+
+    public ConfigurableApplicationContext start(ServiceNode node) {
+        long started = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(node.applicationClass())
+                .registerShutdownHook(false)
+                .run(arguments(node));
+
+        awaitPartitionAssignment(context);
+        log.info("{} started in {} ms", node.serviceName(), (System.nanoTime() - started) / 1_000_000);
+        return context;
+    }
+
+    private String[] arguments(ServiceNode node) {
+        String registry = EmbeddedInfrastructure.SCHEMA_REGISTRY_URL;
+        return List.of(
+                "--spring.config.location=" + node.resourcePrefix() + "application.yml",
+                "--spring.flyway.locations=" + node.resourcePrefix() + "db/migration",
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.cloud.config.enabled=false",
+                "--spring.datasource.url=" + infrastructure.jdbcUrl(node),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.datasource.hikari.pool-name=" + node.serviceName(),
+                "--spring.kafka.bootstrap-servers=" + infrastructure.bootstrapServers(),
+                "--spring.kafka.properties.schema.registry.url=" + registry,
+                "--spring.kafka.producer.properties.schema.registry.url=" + registry,
+                "--spring.kafka.consumer.properties.schema.registry.url=" + registry,
+                "--management.tracing.enabled=false",
+                // One JVM shares the process-wide id generator; each service still writes to its own database
+                "--adapt.id.node-id=0",
+                "--logging.level.com.research.adapt=" + options.logLevel())
+                .toArray(String[]::new);
+    }
+
+    /** Load must not start before every listener owns its partitions, or the first sagas wait for a rebalance */
+    private void awaitPartitionAssignment(ConfigurableApplicationContext context) {
+        KafkaListenerEndpointRegistry registry = context.getBeanProvider(KafkaListenerEndpointRegistry.class).getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+            if (topics != null) {
+                ContainerTestUtils.waitForAssignment(container, topics.length * options.partitions());
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.research.adapt.harness;
+
+import com.research.adapt.billing.BillingServiceApplication;
+import com.research.adapt.inventory.InventoryServiceApplication;
+import com.research.adapt.notification.NotificationServiceApplication;
+import com.research.adapt.order.OrderServiceApplication;
+import com.research.adapt.payment.PaymentServiceApplication;
+import com.research.adapt.user.UserServiceApplication;
+
+/**
+ * The domain services booted by the harness, in start order
+ * Downstream consumers start first, the order service (which the load driver calls) last.
+ */
+public enum ServiceNode {
+
+    USER("user-service", UserServiceApplication.class, "user_db"),
+    INVENTORY("inventory-service", InventoryServiceApplication.class, "inventory_db"),
+    PAYMENT("payment-service", PaymentServiceApplication.class, "payment_db"),
+    BILLING("billing-service", BillingServiceApplication.class, "billing_db"),
+    NOTIFICATION("notification-service", NotificationServiceApplication.class, "notification_db"),
+    ORDER("order-service", OrderServiceApplication.class, "order_db");
+
+    private final String serviceName;
+    private final Class<?> applicationClass;
+    private final String database;
+
+    ServiceNode(String serviceName, Class<?> applicationClass, String database) {
+        this.serviceName = serviceName;
+        this.applicationClass = applicationClass;
+        this.database = database;
+    }
+
+    public String serviceName() {
+        return serviceName;
+    }
+
+    public Class<?> applicationClass() {
+        return applicationClass;
+    }
+
+    public String database() {
+        return database;
+    }
+
+    /** Where the harness build puts this service's resources (see the build-helper configuration in the pom) */
+    public String resourcePrefix() {
+        return "classpath:services/" + serviceName + "/";
+    }
+}
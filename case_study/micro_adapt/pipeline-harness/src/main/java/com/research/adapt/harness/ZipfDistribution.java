@@ -0,0 +1,31 @@
+package com.research.adapt.harness;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over 1..n by inverse CDF lookup
+ * Same model as the Gatling workload feeders (benchmarks/gatling/simulations/workload), so hot products behave alike.
+ */
+class ZipfDistribution {
+
+    private final double[] cdf;
+
+    ZipfDistribution(int n, double skew) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        // Rounding can leave the last CDF entry just below 1.0
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1) + 1;
+    }
+}
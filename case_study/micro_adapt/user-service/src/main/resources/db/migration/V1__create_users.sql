@@ -0,0 +1,17 @@
+-- User service schema
+-- Ids are assigned by the application (@TimeOrderedId), so key columns are plain BIGINT.
+-- UserRepository.findByUsername and findByEmail are served by the unique constraints' indexes.
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    username     VARCHAR(255) NOT NULL UNIQUE,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    full_name    VARCHAR(255),
+    phone_number VARCHAR(255),
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6)
+);
+
+-- Databases created by ddl-auto used IDENTITY keys
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
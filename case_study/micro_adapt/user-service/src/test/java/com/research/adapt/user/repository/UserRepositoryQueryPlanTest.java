@@ -0,0 +1,57 @@
+package com.research.adapt.user.repository;
+
+import com.research.adapt.common.persistence.QueryPlanDatabase;
+import com.research.adapt.common.persistence.QueryPlanRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every UserRepository finder must be served by the unique constraints' indexes from V1__create_users.sql
+ * 20k users
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanDatabase.class)
+class UserRepositoryQueryPlanTest {
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void loadUsers() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO users (id, username, email, password, created_at)
+                SELECT n, 'user' || n, 'user' || n || '@example.com', 'secret', now()
+                FROM generate_series(1, 20000) n""");
+        jdbc.execute("ANALYZE users");
+        recorder.reset();
+    }
+
+    @Test
+    void findByUsernameUsesIndex() {
+        assertThat(userRepository.findByUsername("user4242")).isPresent();
+        recorder.assertNoSequentialScans("UserRepository.findByUsername");
+    }
+
+    @Test
+    void findByEmailUsesIndex() {
+        assertThat(userRepository.findByEmail("user4242@example.com")).isPresent();
+        recorder.assertNoSequentialScans("UserRepository.findByEmail");
+    }
+}